@@ -4,6 +4,7 @@
 
 package frc.robot;
 
+import com.ctre.phoenix6.signals.NeutralModeValue;
 import edu.wpi.first.math.util.Units;
 
 
@@ -37,8 +38,8 @@ public final class Constants {
     // Typical FRC drivetrain gear ratio is around 10.71:1 (adjust for your specific robot)
     public static final double kGearRatio = 3; // Motor rotations per wheel rotation
     public static final double kWheelCircumferenceMeters = kWheelDiameterMeters * Math.PI;
-    // Conversion: TalonFX position (rotations) * gear ratio * wheel circumference = distance in meters
-    public static final double kTalonFXRotationsToMeters = kGearRatio * kWheelCircumferenceMeters;
+    // Conversion: TalonFX position (motor rotations) / gear ratio * wheel circumference = distance in meters
+    public static final double kTalonFXRotationsToMeters = kWheelCircumferenceMeters / kGearRatio;
 
     /**
      * Track width (distance between left and right wheels) in meters.
@@ -47,6 +48,13 @@ public final class Constants {
      */
     public static final double kTrackWidthMeters = Units.inchesToMeters(24); // Adjust based on your robot's actual track width
 
+    /**
+     * Robot speed at full duty cycle (m/s): the Kraken X60's free speed through the encoder
+     * conversion. Used to turn path-following velocities into duty cycles.
+     */
+    public static final double kMotorFreeSpeedRPS = 100.0;
+    public static final double kMaxSpeedMetersPerSecond = kMotorFreeSpeedRPS * kTalonFXRotationsToMeters;
+
     /**
      * Maximum speed multiplier for the drivetrain (0.0 to 1.0).
      * This limits the maximum speed of the robot.
@@ -67,11 +75,44 @@ public final class Constants {
     public static final double kTurnSensitivityMultiplier = 0.5; // 50% turn sensitivity
 
     /**
-     * Brake power applied when robot is disabled (0.0 to 1.0).
-     * This applies reverse power to help slow down the robot faster.
-     * 0.15 = 15% reverse power for braking
+     * Neutral mode of both drive motors. Brake shorts the windings, so the robot stops quickly
+     * whenever the motors are in neutral, including while disabled.
+     */
+    public static final NeutralModeValue kNeutralMode = NeutralModeValue.Brake;
+
+    /**
+     * Active stop at the end of drive commands (see StopController). Each side's wheel speed is
+     * driven to zero with a P loop (duty cycle per m/s, limited to kStopMaxDutyCycle), then the
+     * motors go to neutral. Gives up after kStopTimeoutSeconds.
+     */
+    public static final double kStopP = 0.5;
+    public static final double kStopMaxDutyCycle = 0.3;
+    public static final double kStopToleranceMetersPerSecond = 0.05;
+    public static final double kStopTimeoutSeconds = 0.5;
+
+    /**
+     * Traction control (see TractionControl). Slip is detected when the wheels, on average,
+     * out-accelerate the chassis (roboRIO accelerometer) by the acceleration margin, or out-run the
+     * chassis speed estimate by the velocity margin, for kSlipDetectCycles loops in a row.
+     * The grip limit starts from AutoConstants.kWheelCof and kRobotMassKg.
      */
-    public static final double kDisabledBrakePower = 0.15; // 15% brake power
+    public static final boolean kTractionControlEnabled = true;
+    public static final double kSlipAccelMarginMetersPerSecondSquared = 3.0;
+    public static final double kSlipVelocityMetersPerSecond = 0.3;
+    public static final int kSlipDetectCycles = 2;
+    // Wheel and chassis accelerations are smoothed the same way so they stay comparable
+    public static final double kAccelFilterSeconds = 0.04;
+
+    /**
+     * On slip, a side's duty cycle above the speed-matching duty cycle is cut to this fraction,
+     * but never below kMinTractionHeadroom. It then recovers at kTractionRecoveryPerSecond.
+     */
+    public static final double kSlipTorqueScale = 0.5;
+    public static final double kMinTractionHeadroom = 0.1;
+    public static final double kTractionRecoveryPerSecond = 1.0;
+
+    /** Sign of the roboRIO accelerometer's X axis relative to robot-forward (-1 if mounted backwards). */
+    public static final double kAccelerometerForwardSign = 1.0;
   }
 
   public static final class ShooterConstants {
@@ -131,12 +172,81 @@ public final class Constants {
     public static final double kShooterKS = 0.0;  // Static friction (usually 0 for smaller motors)
     public static final double kShooterKV = 0.16; // Start here - most critical value! Tune this first
 
+    /**
+     * Acceleration gain (volts per RPS/s), i.e. the flywheel's inertia as the motor sees it.
+     * Only used by the recovery model, not by the velocity loop. Derived from the Kraken's
+     * torque constant and the simulated moment of inertia; replace with a SysId kA when available.
+     */
+    public static final double kShooterKA = 0.02;
+
+    /** Voltage the recovery model assumes the motor can apply when saturated. */
+    public static final double kShooterModelMaxVolts = 12.0;
+
+    /**
+     * Velocity error within which the flywheel counts as "at speed" (RPS).
+     * Used for shot readiness and for measuring spin-up and recovery times.
+     */
+    public static final double kShooterToleranceRPS = 1.5;
+
+    /**
+     * Distance-to-velocity shot map, relative to the deploy directory. Edit and redeploy to retune;
+     * the file is reloaded while the robot code runs.
+     */
+    public static final String kShotMapFile = "shooter/shotmap.json";
+
+    /**
+     * Flywheel speed held while not shooting (RPS, magnitude; the sign follows the shot map).
+     * 0 lets the flywheel spin down and coast outside the shooting zone, as it did before pre-spin.
+     * A few RPS would keep it partway up so a shot doesn't start from rest.
+     */
+    public static final double kIdleVelocityRPS = 0.0;
+
+    /**
+     * Shooting zone: within this distance of the goal the idle policy pre-spins to the shot map
+     * velocity, so the flywheel is already at speed when the driver fires. Covers the shot map's
+     * measured range plus a little approach distance, not the whole working area.
+     */
+    public static final double kPreSpinRadiusMeters = 2.5;
+
+    /**
+     * Battery sag guard: below this supply voltage (for kSagDebounceSeconds) pre-spin is dropped
+     * and the flywheel falls back to idle, leaving current for the drivetrain.
+     */
+    public static final double kSagVoltage = 10.0;
+    public static final double kSagDebounceSeconds = 0.25;
+
+    /**
+     * Shot capture: around each feed the flywheel's velocity, current and voltage signals are
+     * raised to kCaptureSignalHz and logged under "ShooterCapture/" for kCaptureSeconds (extended
+     * by each further feed), then dropped back to their normal rates.
+     */
+    public static final boolean kShotCaptureEnabled = true;
+    public static final double kCaptureSignalHz = 1000.0;
+    public static final double kCaptureSeconds = 0.5;
+    // Samples held before a background write to the log (1 s at kCaptureSignalHz)
+    public static final int kCaptureBufferSamples = 1000;
+
+    /**
+     * Neutral mode of the flywheel. Coast, so going neutral never yanks the flywheel to a stop
+     * through the belt and shaft.
+     */
+    public static final NeutralModeValue kNeutralMode = NeutralModeValue.Coast;
+
+    /**
+     * Controlled spin-down: when the requested velocity drops (a shot command ends, or the robot
+     * leaves the pre-spin zone) the setpoint ramps down at this rate instead of stepping, so the
+     * velocity loop never drives the flywheel backwards to shed speed.
+     */
+    public static final double kSpinDownRPSPerSecond = 40.0;
   }
 
   public static final class FeederConstants {
     /** CAN ID for feeder motor */
     public static final int kFeederMotorPort = 4; // CAN ID for feeder motor
 
+    /** Neutral mode of the feeder motor. Brake holds balls in place once the feeder stops. */
+    public static final NeutralModeValue kNeutralMode = NeutralModeValue.Brake;
+
     /**
      * Feeder motor percent output.
      * Positive values feed balls into the shooter; adjust based on testing.
@@ -144,11 +254,233 @@ public final class Constants {
     public static final double kFeederPercentOutput = -0.11; // 11% power
   }
 
+  public static final class IndexerConstants {
+    /**
+     * Feeder output while firing (same sign as kFeederPercentOutput), used when the shot map
+     * has no feeder column. Faster than the manual feed rate so each ball clears the feeder quickly.
+     */
+    public static final double kFirePercentOutput = -0.25;
+
+    /**
+     * Feeder output and distance for staging: the first ball is backed off the flywheel
+     * while it spins up, so it can't be dribbled out early.
+     */
+    public static final double kStagePercentOutput = 0.08;
+    public static final double kStageRotations = 0.25;
+
+    /** Feeder rotations that push exactly one ball into the flywheel. Tune on the robot. */
+    public static final double kRotationsPerShot = 1.0;
+
+    /** Most balls the hopper can hold; "fire all" never tries more than this. */
+    public static final int kHopperCapacity = 5;
+
+    /**
+     * After feeding one ball's worth, how long to wait for the flywheel to dip before deciding no
+     * ball went through (the hopper is empty), in seconds.
+     */
+    public static final double kShotDetectWindowSeconds = 0.25;
+
+    /** Longest time to wait for the flywheel to reach (or recover to) speed, in seconds. */
+    public static final double kReadyTimeoutSeconds = 3.0;
+
+    /**
+     * Flywheel speed lost to each ball (RPS). Burst fire predicts recovery from this drop;
+     * compare predicted and actual burst times on the dashboard and adjust.
+     */
+    public static final double kShotVelocityDropRPS = 4.0;
+
+    /** Expected time for one feed pulse of kRotationsPerShot at kFirePercentOutput, in seconds. */
+    public static final double kFeedPulseSeconds = 0.15;
+  }
+
+  public static final class CanConstants {
+    /**
+     * Name of the CAN bus all TalonFX devices live on.
+     * "rio" is the roboRIO's built-in CAN bus (the CanBridge passthrough shares it).
+     */
+    public static final String kCanBusName = "rio";
+
+    /**
+     * Update frequency for signals read by control code every loop (position, velocity).
+     * Matches the 50 Hz TimedRobot loop so every read sees a fresh sample.
+     */
+    public static final double kControlSignalHz = 50.0;
+
+    /**
+     * Update frequency for signals only used for dashboards and diagnostics
+     * (temperature, current, applied voltage).
+     */
+    public static final double kTelemetrySignalHz = 10.0;
+
+    /**
+     * How often bus status is sampled and published, in seconds.
+     * CANBus.getStatus() is a blocking JNI call, so it is not worth doing every loop.
+     */
+    public static final double kStatusPublishPeriodSeconds = 0.5;
+
+    /**
+     * Nominal number of frames per second the bus can carry at 1 Mbit/s.
+     * A standard 8-byte extended CAN frame is ~130 bits with stuffing, giving roughly 7,700 frames/s.
+     */
+    public static final double kBusCapacityFramesPerSecond = 7700.0;
+
+    /**
+     * Rate Phoenix repeats each active control request at, in Hz. The repeats come from Phoenix's
+     * own thread, so robot loop jitter or overruns can't stretch the gap past CTRE's 50 ms guidance.
+     * Half the default 100 Hz, and still one frame per 20 ms loop.
+     */
+    public static final double kControlUpdateHz = 50.0;
+
+    /**
+     * Outputs closer than this to the last sent value are treated as unchanged and not re-sent.
+     * Units are those of the request (duty cycle, or rotations per second for velocity).
+     */
+    public static final double kControlChangeTolerance = 1e-4;
+  }
+
+  public static final class HealthConstants {
+    /**
+     * A signal older than this is considered stale, in seconds.
+     * Several control-signal periods, so one dropped frame does not trip it.
+     */
+    public static final double kStaleSignalSeconds = 0.25;
+
+    /** Motor controller temperature above which an over-temperature alert is raised, in Celsius. */
+    public static final double kMaxDeviceTempCelsius = 85.0;
+  }
+
+  public static final class LoopConstants {
+    /**
+     * Rate groups for periodic work registered through TimedRobot.addPeriodic().
+     * Offsets are phase shifts from the main 20 ms loop (which runs at offset 0) so the
+     * groups do not all wake up at the same instant. Budgets are the execution time each
+     * callback may use before it is counted as an overrun.
+     */
+    public static final double kSensingPeriodSeconds = 0.02;   // 50 Hz, matches kControlSignalHz
+    public static final double kSensingOffsetSeconds = 0.005;
+    public static final double kSensingBudgetSeconds = 0.002;
+
+    public static final double kTelemetryPeriodSeconds = 0.1;  // 10 Hz
+    public static final double kTelemetryOffsetSeconds = 0.0075;
+    public static final double kTelemetryBudgetSeconds = 0.003;
+
+    /**
+     * How long the class-data-sharing training run (./gradlew deploy -Pcds) keeps running before it
+     * exits, in seconds. Long enough for the periodic code paths to have loaded their classes.
+     */
+    public static final double kCdsTrainingSeconds = 10.0;
+  }
+
+  public static final class LoggingConstants {
+    /**
+     * Maximum time one Epilogue update may take, in seconds. When exceeded, the lowest
+     * importance level still being logged is dropped until logging fits again.
+     */
+    public static final double kLoggingBudgetSeconds = 0.002;
+
+    /** DEBUG fields are only logged every Nth loop (10 Hz at the 50 Hz main loop). */
+    public static final int kDebugLogDivisor = 5;
+
+    /**
+     * Consecutive loops that must come in under half the budget before a shed importance level
+     * is logged again.
+     */
+    public static final int kRestoreAfterLoops = 250;
+
+    /**
+     * Records command scheduler events for a Chrome trace (chrome://tracing or ui.perfetto.dev).
+     * Off for competition: when false nothing is registered with the scheduler at all.
+     */
+    public static final boolean kTraceCommands = false;
+
+    /** Trace events kept per recording; about 8 events per loop covers a full match. */
+    public static final int kTraceCapacity = 1 << 17;
+
+    /** Directory, under the robot's working directory, that traces are written to. */
+    public static final String kTraceDirectory = "traces";
+  }
+
+  public static final class FieldConstants {
+    /**
+     * Field positions for the blue alliance, in PathPlanner's field frame (meters; origin at the blue
+     * driver station wall's right corner). FieldGoal flips them for red.
+     */
+    // Goal the shot map distance is measured to: the center of the blue reef
+    public static final double kGoalXMeters = 4.489;
+    public static final double kGoalYMeters = 4.026;
+
+    /**
+     * Where odometry is placed when autonomous or teleop starts and no PathPlanner auto has set the
+     * pose: the center of the starting line, facing the goal. Place the robot here for the default
+     * auto and for practice without an auto.
+     */
+    public static final double kStartXMeters = 7.624;
+    public static final double kStartYMeters = 4.026;
+    public static final double kStartHeadingDegrees = 180.0;
+
+    /**
+     * Auto-align scoring pose: this far from the goal, on the starting-line side, facing the goal.
+     * Derived from the goal so the shot map and auto-align agree on where it is.
+     */
+    public static final double kScoringStandoffMeters = 1.28;
+  }
+
+  public static final class SimConstants {
+    /**
+     * Moments of inertia seen by each simulated motor shaft, in kg*m^2.
+     * Rough values: only meant to make simulated mechanisms respond on plausible time scales.
+     */
+    public static final double kDriveSideMoiKgM2 = 0.01;
+    public static final double kFeederMoiKgM2 = 0.0005;
+    public static final double kShooterMoiKgM2 = 0.002;
+  }
+
   public static final class AutoConstants {
+    /**
+     * Default auto's drive and turn, in meters and degrees the robot really covers: both are
+     * measured from the wheel encoders through DriveConstants.kTalonFXRotationsToMeters.
+     */
     public static final double kAutoDriveForwardDistance = 0.5; // Distance in meters for autonomous
     public static final double kDriveSpeed = 0.5; // Speed for autonomous driving
     public static final double kTurnSpeed = 0.4; // Speed for turning in autonomous
     public static final double kAutoTurnDegrees = 90.0; // Turn angle in degrees for autonomous
+    public static final int kAutoBallCount = 2; // Balls fired at the end of autonomous
+
+    /**
+     * Robot properties for PathPlanner, matching deploy/pathplanner/settings.json. The GUI file is
+     * set up for a holonomic drive, so the differential config is built from these instead.
+     */
+    public static final double kRobotMassKg = 56.0;
+    public static final double kRobotMoiKgM2 = 6.883;
+    public static final double kWheelCof = 1.9;
+    public static final double kDriveCurrentLimitAmps = 60.0;
+
+    /** Deploy subdirectory holding the PathPlanner .auto files. */
+    public static final String kAutosDirectory = "pathplanner/autos";
+  }
+
+  public static final class TrajectoryConstants {
+    /**
+     * Drive feedforward for the trajectory voltage constraint (volts, V per m/s, V per m/s^2).
+     * kV follows from the free speed through the gear reduction (kMaxSpeedMetersPerSecond) at
+     * 12 V; replace all three with SysId values.
+     */
+    public static final double kDriveKS = 0.2;
+    public static final double kDriveKV = 12.0 / DriveConstants.kMaxSpeedMetersPerSecond;
+    public static final double kDriveKA = 0.1;
+    public static final double kMaxVoltage = 10.0; // Leaves headroom for feedback under sag
+
+    /** Speed and acceleration limits for auto-align trajectories. */
+    public static final double kMaxSpeedMetersPerSecond = 2.0;
+    public static final double kMaxAccelerationMetersPerSecondSquared = 1.5;
+
+    /**
+     * Cache key resolution: start and goal poses closer than this share a trajectory.
+     * The follower's feedback absorbs the difference.
+     */
+    public static final double kCacheResolutionMeters = 0.05;
+    public static final double kCacheResolutionDegrees = 3.0;
+    public static final int kCacheSize = 32;
   }
  
   public static final class OIConstants {
@@ -172,6 +504,8 @@ public final class Constants {
     public static final int kArcadeDriveTurnAxis = 0; // X-axis for turning
     public static final int kIntakeCloseButtonIdx = 6; // Button index for running feeder (legacy name kept for compatibility)
     public static final int kShooterButtonIdx = 5; // Button index for turning on shooter
+    public static final int kFireAllButtonIdx = 1; // Trigger: hold to empty the hopper through the shooter
+    public static final int kAutoAlignButtonIdx = 2; // Hold to drive to the scoring pose
     
     /**
      * Deadband value for joystick axes.
@@ -179,6 +513,12 @@ public final class Constants {
      * Typical values: 0.05 - 0.15
      */
     public static final double kJoystickDeadband = 0.05;
+
+    // Input-to-actuation latency instrumentation (see InputLatencyTracker)
+    public static final int kLatencyWindowSamples = 500; // ~10 s of drive cycles per published percentile
+    public static final double kLatencyStepDutyCycle = 0.1; // Output change timed through to the motor
+    public static final double kLatencyAppliedTolerance = 0.02; // Reported output counts as "there" within this
+    public static final long kLatencyTimeoutMicros = 500_000L; // Give up on a step that never arrives
   }
 }
 
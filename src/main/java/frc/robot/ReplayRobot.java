@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.util.DriverStationInputs;
+import frc.robot.util.InputLog;
+import frc.robot.util.ReplaySource;
+import java.io.IOException;
+
+/**
+ * Replays a match log recorded by {@link InputLog} through the unmodified robot code.
+ *
+ * <p>Simulation time is paused and stepped by each recorded cycle's duration, so timers and
+ * timeouts behave exactly as they did in the match, but cycles run back-to-back as fast as the CPU
+ * allows. Every replayed input is written to a new log next to the original for comparison. Tasks
+ * registered with the loop scheduler (health checks, CAN telemetry, shot-map reloads) run after
+ * the cycle in which they come due, as TimedRobot would have run them between cycles.
+ *
+ * <p>Run with {@code ./gradlew replay -Plog=path/to/match.wpilog}.
+ */
+public class ReplayRobot extends Robot {
+    private final ReplaySource m_source;
+    private final InputLog m_inputLog;
+
+    private ReplayRobot(ReplaySource source, InputLog inputLog) {
+        super(inputLog);
+        m_source = source;
+        m_inputLog = inputLog;
+    }
+
+    /**
+     * Replay entry point.
+     *
+     * @param args Path to the recorded .wpilog, and optionally the output path
+     */
+    public static void main(String... args) throws IOException {
+        if (args.length < 1 || args[0].isEmpty()) {
+            System.err.println("Usage: ReplayRobot <match.wpilog> [output.wpilog]");
+            System.exit(1);
+        }
+        String outputPath = args.length > 1 ? args[1] : args[0].replace(".wpilog", "_replay.wpilog");
+
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("Failed to initialize HAL");
+        }
+        SimHooks.pauseTiming();
+
+        ReplaySource source = new ReplaySource(args[0]);
+        try (DataLogWriter output = new DataLogWriter(outputPath)) {
+            ReplayRobot robot = new ReplayRobot(source, new InputLog(output, source));
+            robot.replay();
+        }
+        System.out.println("Replay written to " + outputPath);
+        System.exit(0);
+    }
+
+    private void replay() {
+        DriverStationInputs driverStation = new DriverStationInputs();
+        int cycles = m_source.getCycleCount();
+        long previousTimestamp = 0;
+        long startNanos = System.nanoTime();
+
+        // The container reads the alliance when it is built, so start from the first cycle's state
+        m_source.setCycle(0);
+        m_inputLog.restore("DriverStation", driverStation);
+        driverStation.applyToSim();
+        robotInit();
+        for (int i = 0; i < cycles; i++) {
+            m_source.setCycle(i);
+            long timestamp = m_source.getCycleTimestampMicros();
+            if (i > 0) {
+                SimHooks.stepTiming((timestamp - previousTimestamp) / 1e6);
+            }
+            previousTimestamp = timestamp;
+
+            // Mode and joystick state must be in place before the loop reads the Driver Station
+            m_inputLog.restore("DriverStation", driverStation);
+            driverStation.applyToSim();
+            loopFunc();
+            runPeriodicTasks();
+        }
+
+        double wallSeconds = (System.nanoTime() - startNanos) / 1e9;
+        m_source.setCycle(0);
+        double matchSeconds = (previousTimestamp - m_source.getCycleTimestampMicros()) / 1e6;
+        System.out.printf("Replayed %d cycles (%.1f s of match time) in %.2f s (%.0fx real time)%n",
+                cycles, matchSeconds, wallSeconds, matchSeconds / Math.max(wallSeconds, 1e-9));
+    }
+}
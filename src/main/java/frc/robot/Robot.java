@@ -5,10 +5,26 @@
 package frc.robot;
 
 import au.grapplerobotics.CanBridge;
+import edu.wpi.first.epilogue.Epilogue;
+import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.Logged.Importance;
+import edu.wpi.first.epilogue.NotLogged;
+import edu.wpi.first.epilogue.logging.FileBackend;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
-import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.LoggingConstants;
+import frc.robot.Constants.LoopConstants;
+import frc.robot.util.BootProfiler;
+import frc.robot.util.CommandTracer;
+import frc.robot.util.DriverStationInputs;
+import frc.robot.util.InputLog;
+import frc.robot.util.LoggingBudget;
+import frc.robot.util.LoopScheduler;
+import java.io.File;
 
 /**
  * The VM is configured to automatically run this class, and to call the functions corresponding to
@@ -16,13 +32,81 @@ import frc.robot.Constants.DriveConstants;
  * the package after creating this project, you must also update the build.gradle file in the
  * project.
  */
+@Logged
 public class Robot extends TimedRobot {
+  @NotLogged
   private Command m_autonomousCommand;
 
+  @Logged(name = "Container")
   private RobotContainer m_robotContainer;
 
+  @NotLogged
+  private final LoopScheduler m_loopScheduler = new LoopScheduler(this);
+
+  @NotLogged
+  private final InputLog m_inputLog;
+  @NotLogged
+  private final DriverStationInputs m_driverStationInputs = new DriverStationInputs();
+  @NotLogged
+  private final LoggingBudget m_loggingBudget = new LoggingBudget(Epilogue.getConfig(), () -> Epilogue.update(this));
+
   public Robot(){
+    // startRobot() initializes the HAL before constructing the robot
+    BootProfiler.mark("HAL init");
     CanBridge.runTCP();
+    BootProfiler.mark("CanBridge");
+
+    // Record every input each cycle so matches can be replayed offline (see ReplayRobot)
+    DataLogManager.start();
+    m_inputLog = new InputLog(DataLogManager.getLog(), null);
+    configureLogging(m_inputLog.getDataLog());
+    BootProfiler.mark("Logging");
+
+    if (BootProfiler.isTrainingRun()) {
+      // Let the loop code load too, then exit so the JVM writes its class list
+      addPeriodic(BootProfiler::endTrainingRun, LoopConstants.kCdsTrainingSeconds);
+    }
+  }
+
+  /**
+   * Creates a robot whose inputs come from a recorded log instead of hardware.
+   *
+   * @param inputLog Input log in replay mode
+   */
+  protected Robot(InputLog inputLog) {
+    m_inputLog = inputLog;
+    configureLogging(m_inputLog.getDataLog());
+  }
+
+  /**
+   * Sends Epilogue output to the same log as the recorded inputs. Updates are driven by
+   * {@link LoggingBudget} from robotPeriodic() rather than Epilogue.bind(), so logging time is capped.
+   */
+  private static void configureLogging(DataLog log) {
+    Epilogue.configure(config -> {
+      config.backend = new FileBackend(log);
+      config.root = "Telemetry";
+    });
+  }
+
+  /**
+   * Time the last Epilogue update took.
+   *
+   * @return Logging time in milliseconds
+   */
+  @Logged(name = "Logging Time (ms)", importance = Importance.CRITICAL)
+  public double getLoggingMillis() {
+    return m_loggingBudget.getLastUpdateMillis();
+  }
+
+  /**
+   * Number of times logging went over budget and shed an importance level.
+   *
+   * @return Shed count
+   */
+  @Logged(name = "Logging Sheds", importance = Importance.CRITICAL)
+  public long getLoggingShedCount() {
+    return m_loggingBudget.getShedCount();
   }
   /**
    * This function is run when the robot is first started up and should be used for any
@@ -33,20 +117,20 @@ public class Robot extends TimedRobot {
     // Instantiate our RobotContainer.  This will perform all our button bindings, and put our
     // autonomous chooser on the dashboard.
     try {
-      m_robotContainer = new RobotContainer();
+      m_robotContainer = new RobotContainer(m_inputLog);
+      m_robotContainer.registerPeriodicTasks(m_loopScheduler);
       
       // Explicitly ensure all motors are stopped at startup
       // This prevents any motors from running during initialization
       if (m_robotContainer != null) {
-        m_robotContainer.getFeederSubsystem().stop();
-        m_robotContainer.getDriveSubsystem().setMotors(0, 0);
-        // Shooter default command already keeps it stopped, but ensure it's off
-        m_robotContainer.getShooterSubsystem().brake(0);
+        setAllNeutral();
       }
     } catch (Exception e) {
       System.err.println("CRITICAL: Failed to initialize RobotContainer: " + e.getMessage());
       e.printStackTrace();
     }
+    BootProfiler.mark("robotInit");
+    BootProfiler.finish(m_inputLog.getDataLog());
   }
 
   /**
@@ -58,11 +142,36 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotPeriodic() {
+    // Record this cycle's Driver Station state before anything reads it
+    m_inputLog.beginCycle();
+    m_driverStationInputs.update();
+    m_inputLog.process("DriverStation", m_driverStationInputs);
+
+    CommandTracer tracer = m_robotContainer != null ? m_robotContainer.getCommandTracer() : null;
+    if (tracer != null) {
+      tracer.loopStart();
+    }
+
     // Runs the Scheduler.  This is responsible for polling buttons, adding newly-scheduled
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
     CommandScheduler.getInstance().run();
+
+    // Log after the scheduler so values reflect this loop's commands
+    m_loggingBudget.run();
+
+    if (tracer != null) {
+      tracer.loopEnd();
+    }
+  }
+
+  /**
+   * Runs the loop scheduler's tasks that are due. TimedRobot does this on its own; a loop that calls
+   * loopFunc() directly must call this after each cycle.
+   */
+  protected void runPeriodicTasks() {
+    m_loopScheduler.runDue();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
@@ -70,29 +179,34 @@ public class Robot extends TimedRobot {
   public void disabledInit() {
     // Cancel all running commands when disabled
     CommandScheduler.getInstance().cancelAll();
+
+    // Outputs are cut while disabled, so there is nothing to actively stop with; each motor's
+    // neutral mode (brake for drive and feeder, coast for the flywheel) does the stopping
+    if (m_robotContainer != null) {
+      setAllNeutral();
+    }
+
+    // Write out the match's command trace while nothing time-critical is running
+    CommandTracer tracer = m_robotContainer != null ? m_robotContainer.getCommandTracer() : null;
+    if (tracer != null) {
+      tracer.export(new File(Filesystem.getOperatingDirectory(), LoggingConstants.kTraceDirectory));
+    }
   }
 
   /**
-   * This function is called periodically while the robot is disabled.
-   * Applies motor braking to all motors to help slow down the robot faster.
+   * Puts every motor in its neutral mode. Each sends one frame and then nothing until a command
+   * asks the motor to move again.
    */
-  @Override
-  public void disabledPeriodic() {
-    // Apply braking power to all motors to help slow down faster
-    if (m_robotContainer != null) {
-      double brakePower = -DriveConstants.kDisabledBrakePower; // Negative for reverse/braking
-      
-      // Brake drive motors
-      m_robotContainer.getDriveSubsystem().brake(brakePower);
-      
-      // Brake feeder motor
-      m_robotContainer.getFeederSubsystem().brake(brakePower);
-      
-      // Brake shooter motor
-      m_robotContainer.getShooterSubsystem().brake(brakePower);
-    }
+  private void setAllNeutral() {
+    m_robotContainer.getDriveSubsystem().setNeutral();
+    m_robotContainer.getFeederSubsystem().stop();
+    m_robotContainer.getShooterSubsystem().setNeutral();
   }
 
+  /** This function is called periodically while the robot is disabled. */
+  @Override
+  public void disabledPeriodic() {}
+
   /** This autonomous runs the autonomous command selected by your {@link RobotContainer} class. */
   @Override
   public void autonomousInit() {
@@ -102,6 +216,9 @@ public class Robot extends TimedRobot {
       System.err.println("ERROR: RobotContainer not initialized!");
       return;
     }
+
+    // Before the auto starts, so a PathPlanner auto's own pose reset wins
+    m_robotContainer.updateFieldPose();
     
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
 
@@ -126,6 +243,11 @@ public class Robot extends TimedRobot {
     if (m_autonomousCommand != null) {
       m_autonomousCommand.cancel();
     }
+
+    // Keeps the pose from auto; only places it when teleop is the first mode run
+    if (m_robotContainer != null) {
+      m_robotContainer.updateFieldPose();
+    }
   }
 
   /** This function is called periodically during operator control. */
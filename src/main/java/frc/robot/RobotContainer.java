@@ -1,21 +1,66 @@
 package frc.robot;
 
 import frc.robot.Constants.AutoConstants;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.IndexerConstants;
+import frc.robot.Constants.LoggingConstants;
 import frc.robot.Constants.OIConstants;
+import frc.robot.Constants.ShooterConstants;
 import frc.robot.commands.ArcadeDriveCommand;
+import frc.robot.commands.BurstFireCommand;
 import frc.robot.commands.DriveForwardCommand;
 import frc.robot.commands.FeederSetCommand;
 import frc.robot.commands.FeederRunCommand;
+import frc.robot.commands.FireAllCommand;
+import frc.robot.commands.FollowTrajectoryCommand;
 import frc.robot.commands.TurnCommand;
+import frc.robot.subsystems.DriveIO;
+import frc.robot.subsystems.DriveIOSim;
+import frc.robot.subsystems.DriveIOTalonFX;
 import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.subsystems.FeederIO;
+import frc.robot.subsystems.FeederIOSim;
+import frc.robot.subsystems.FeederIOTalonFX;
+import frc.robot.subsystems.ShooterIO;
+import frc.robot.subsystems.ShooterIOSim;
+import frc.robot.subsystems.ShooterIOTalonFX;
 import frc.robot.subsystems.ShooterSubsystem;
 import frc.robot.subsystems.FeederSubsystem;
+import frc.robot.util.AutoLibrary;
+import frc.robot.util.BootProfiler;
+import frc.robot.util.CanBudget;
+import frc.robot.util.CommandTracer;
+import frc.robot.util.DeviceHealthMonitor;
+import frc.robot.util.FieldGoal;
+import frc.robot.util.InputLatencyTracker;
+import frc.robot.util.InputLog;
+import frc.robot.util.LoopScheduler;
+import frc.robot.util.LoopScheduler.Rate;
+import frc.robot.util.ShotMap;
+import frc.robot.util.TrajectoryService;
+import com.pathplanner.lib.auto.AutoBuilder;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.config.ModuleConfig;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPLTVController;
+import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.NotLogged;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
 import edu.wpi.first.wpilibj.Joystick;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.ParallelCommandGroup;
 import edu.wpi.first.wpilibj2.command.button.JoystickButton;
+import java.io.File;
 
 /**
  * This class is where the bulk of the robot should be declared.
@@ -24,16 +69,114 @@ import edu.wpi.first.wpilibj2.command.button.JoystickButton;
  * scheduler calls). Instead, the structure of the robot (including subsystems,
  * commands, and button mappings) should be declared here.
  */
+@Logged
 public class RobotContainer {
-    private final DriveSubsystem driveSubsystem = new DriveSubsystem();
-    private final FeederSubsystem feederSubsystem = new FeederSubsystem();
-    private final ShooterSubsystem shooterSubsystem = new ShooterSubsystem();
+    // Hardware IO registers its devices with these
+    @NotLogged
+    private final CanBudget canBudget = new CanBudget();
+    @NotLogged
+    private final DeviceHealthMonitor healthMonitor = new DeviceHealthMonitor();
+    @NotLogged
+    private final FieldGoal fieldGoal = new FieldGoal();
+    // Set once odometry has been placed in the field frame
+    @NotLogged
+    private boolean fieldPoseKnown = false;
+    @NotLogged
+    private final ShotMap shotMap = new ShotMap(
+            new File(Filesystem.getDeployDirectory(), ShooterConstants.kShotMapFile),
+            ShooterConstants.kShooterTargetVelocityRPS);
+    @Logged(name = "Drive")
+    private final DriveSubsystem driveSubsystem;
+    @Logged(name = "Feeder")
+    private final FeederSubsystem feederSubsystem;
+    @Logged(name = "Shooter")
+    private final ShooterSubsystem shooterSubsystem;
     // Joystick port: USB port number on the roboRIO/roboRIO 2.0
     // Port 0 = First USB port, Port 1 = Second USB port, etc.
     // Configure this in Driver Station under "USB Devices" or check the USB port number
+    @NotLogged
+    private final TrajectoryService trajectoryService;
+    // Null unless tracing is turned on, so a competition build registers nothing with the scheduler
+    @NotLogged
+    private final CommandTracer commandTracer = LoggingConstants.kTraceCommands
+            ? new CommandTracer(LoggingConstants.kTraceCapacity)
+            : null;
+    // Null with no-op IO: there is no driver or motor to measure between
+    @NotLogged
+    private final InputLatencyTracker inputLatency;
+    @NotLogged
+    private final AutoLibrary autoLibrary;
+    @NotLogged
+    private final SendableChooser<Command> autoChooser = new SendableChooser<>();
+    @NotLogged
     private final Joystick joystick1 = new Joystick(OIConstants.kDriverJoystickPort);
 
-    public RobotContainer() {
+    /**
+     * Creates the robot's subsystems and bindings.
+     * 
+     * @param inputLog Log that records subsystem inputs, or supplies them when replaying a match
+     */
+    public RobotContainer(InputLog inputLog) {
+        this(inputLog, inputLog.isReplay());
+    }
+
+    /**
+     * Creates the robot's subsystems and bindings, optionally without any hardware or physics IO.
+     * 
+     * @param inputLog Log that records subsystem inputs, or supplies them when replaying a match
+     * @param noOpIO Use the IO interfaces' no-op defaults: for replay, and for tests that measure the
+     *     robot code alone
+     */
+    RobotContainer(InputLog inputLog, boolean noOpIO) {
+        this(inputLog, noOpIO, null, null, null);
+    }
+
+    /**
+     * Creates the robot's subsystems and bindings on IO supplied by a test, e.g. a physics model
+     * wrapped to count its own allocations.
+     * 
+     * @param inputLog Log that records subsystem inputs
+     * @param driveIO Drive IO
+     * @param feederIO Feeder IO
+     * @param shooterIO Shooter IO
+     */
+    RobotContainer(InputLog inputLog, DriveIO driveIO, FeederIO feederIO, ShooterIO shooterIO) {
+        this(inputLog, false, driveIO, feederIO, shooterIO);
+    }
+
+    /** Shared constructor; the IO is chosen here when none is supplied. */
+    private RobotContainer(InputLog inputLog, boolean noOpIO, DriveIO driveIO, FeederIO feederIO,
+            ShooterIO shooterIO) {
+        if (driveIO != null) {
+            // A test supplied its own IO
+        } else if (noOpIO) {
+            // Inputs come from the log (or stay at defaults); the no-op IO never touches hardware
+            driveIO = new DriveIO() {};
+            feederIO = new FeederIO() {};
+            shooterIO = new ShooterIO() {};
+        } else if (RobotBase.isReal()) {
+            driveIO = new DriveIOTalonFX(canBudget, healthMonitor);
+            feederIO = new FeederIOTalonFX(canBudget, healthMonitor);
+            shooterIO = new ShooterIOTalonFX(canBudget, healthMonitor);
+        } else {
+            driveIO = new DriveIOSim();
+            feederIO = new FeederIOSim();
+            shooterIO = new ShooterIOSim();
+        }
+        // Opening the motor controllers is where vendor libraries load and talk to the bus
+        BootProfiler.mark("Device IO");
+        driveSubsystem = new DriveSubsystem(driveIO, inputLog);
+        BootProfiler.mark("DriveSubsystem");
+        feederSubsystem = new FeederSubsystem(feederIO, inputLog);
+        BootProfiler.mark("FeederSubsystem");
+        // Flywheel tracks the shot map velocity for the current distance to the goal
+        shooterSubsystem = new ShooterSubsystem(shooterIO, inputLog, shotMap,
+                () -> driveSubsystem.getDistanceToMeters(fieldGoal.getGoalXMeters(), fieldGoal.getGoalYMeters()));
+
+        BootProfiler.mark("ShooterSubsystem");
+
+        trajectoryService = new TrajectoryService(driveSubsystem.getKinematics());
+
         // Validate joystick connection
         if (joystick1.getButtonCount() == 0) {
             System.err.println("WARNING: Joystick not detected on port " + OIConstants.kDriverJoystickPort);
@@ -41,11 +184,70 @@ public class RobotContainer {
         
         configureButtonBindings();
 
+        inputLatency = noOpIO ? null : new InputLatencyTracker(inputLog.getDataLog());
         driveSubsystem.setDefaultCommand(new ArcadeDriveCommand(driveSubsystem, //
                 () -> -joystick1.getRawAxis(OIConstants.kArcadeDriveSpeedAxis),
-                () -> joystick1.getRawAxis(OIConstants.kArcadeDriveTurnAxis))//
+                () -> joystick1.getRawAxis(OIConstants.kArcadeDriveTurnAxis),
+                inputLatency)//
         );
         // Feeder has default idle command to keep motor stopped when not in use
+        BootProfiler.mark("Command bindings");
+
+        // Autos are built now, not in autonomousInit(), so picking one late costs nothing
+        configureNamedCommands();
+        configureAutoBuilder();
+        autoLibrary = new AutoLibrary(new File(Filesystem.getDeployDirectory(), AutoConstants.kAutosDirectory));
+        autoChooser.setDefaultOption("Drive and Shoot", buildDefaultAuto());
+        autoLibrary.getAutos().forEach(autoChooser::addOption);
+        SmartDashboard.putData("Auto Chooser", autoChooser);
+        BootProfiler.mark("Autos");
+    }
+
+    /**
+     * Maps the named commands used in PathPlanner .auto files to robot actions. Register new names
+     * here; {@link AutoLibrary} reports any name an auto uses that isn't registered.
+     */
+    private void configureNamedCommands() {
+        // Spin up, fire one ball, and let the shooter fall back to idle
+        NamedCommands.registerCommand("scoreL4Coral", Commands.deadline(shoot(1), startShooter()));
+        // Back the hopper off the flywheel so the incoming ball isn't fed early
+        NamedCommands.registerCommand("startIntakeCoral", stageFeeder());
+        // The ball is loaded from the station, not pulled in; hold the staged hopper still for it.
+        // Running the feeder here would push the ball into the flywheel instead.
+        NamedCommands.registerCommand("intakeCoral", holdFeeder());
+    }
+
+    /**
+     * PathPlanner's model of the drivetrain. Shared with the offline path tools so they generate the
+     * same trajectories the robot does.
+     * 
+     * @return Differential drive robot config
+     */
+    public static RobotConfig createRobotConfig() {
+        ModuleConfig moduleConfig = new ModuleConfig(
+                DriveConstants.kWheelDiameterMeters / 2.0,
+                DriveConstants.kMaxSpeedMetersPerSecond,
+                AutoConstants.kWheelCof,
+                DCMotor.getKrakenX60(1).withReduction(DriveConstants.kGearRatio),
+                AutoConstants.kDriveCurrentLimitAmps,
+                1);
+        return new RobotConfig(
+                AutoConstants.kRobotMassKg, AutoConstants.kRobotMoiKgM2, moduleConfig, DriveConstants.kTrackWidthMeters);
+    }
+
+    /** Sets up PathPlanner to follow paths with the differential drive's encoder odometry. */
+    private void configureAutoBuilder() {
+        RobotConfig robotConfig = createRobotConfig();
+
+        AutoBuilder.configure(
+                driveSubsystem::getPose,
+                driveSubsystem::resetPose,
+                driveSubsystem::getRobotRelativeSpeeds,
+                (speeds, feedforwards) -> driveSubsystem.driveRobotRelative(speeds),
+                new PPLTVController(TimedRobot.kDefaultPeriod),
+                robotConfig,
+                () -> DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red,
+                driveSubsystem);
     }
 
     private void configureButtonBindings() {
@@ -56,35 +258,97 @@ public class RobotContainer {
         // Button 5: Toggle shooter on/off - runs at target velocity using PID control
         new JoystickButton(joystick1, OIConstants.kShooterButtonIdx)
                 .toggleOnTrue(shooterSubsystem.shootCommand());
+
+        // Button 1: Fire every ball in the hopper, pacing the feeder on flywheel recovery
+        new JoystickButton(joystick1, OIConstants.kFireAllButtonIdx)
+                .whileTrue(new FireAllCommand(feederSubsystem, shooterSubsystem));
+
+        // Button 2: Drive to the scoring pose while held; the trajectory is generated in the background
+        new JoystickButton(joystick1, OIConstants.kAutoAlignButtonIdx)
+                .whileTrue(new FollowTrajectoryCommand(driveSubsystem, trajectoryService, fieldGoal::getScoringPose));
+    }
+
+    /**
+     * Puts field positions (and, the first time, odometry) in the field frame for this match. Call
+     * when autonomous or teleop starts, when the alliance is known. A PathPlanner auto resets the
+     * pose again from its starting pose.
+     */
+    public void updateFieldPose() {
+        fieldGoal.update();
+        if (!fieldPoseKnown) {
+            driveSubsystem.resetPose(fieldGoal.getStartPose());
+            fieldPoseKnown = true;
+        }
     }
 
     /**
-     * Returns the drive subsystem. Used for applying braking when disabled.
+     * Registers work that runs at rates other than the main 20 ms loop.
+     * 
+     * @param scheduler The robot's loop scheduler
+     */
+    public void registerPeriodicTasks(LoopScheduler scheduler) {
+        // One device per call, so the whole bus is covered every few sensing periods
+        scheduler.schedule(Rate.SENSING, healthMonitor::periodic);
+
+        scheduler.schedule(Rate.TELEMETRY, canBudget::periodic);
+        // Picks up a redeployed shot map without restarting robot code
+        scheduler.schedule(Rate.TELEMETRY, shotMap::reloadIfChanged);
+        scheduler.schedule(Rate.TELEMETRY, driveSubsystem::publishTelemetry);
+        if (inputLatency != null) {
+            scheduler.schedule(Rate.TELEMETRY, inputLatency::publish);
+        }
+    }
+
+    /**
+     * Returns the drive subsystem. Used to put the motors in neutral on mode changes.
      * 
      * @return The drive subsystem
      */
+    @NotLogged
     public DriveSubsystem getDriveSubsystem() {
         return driveSubsystem;
     }
 
     /**
-     * Returns the feeder subsystem. Used for applying braking when disabled.
+     * Returns the feeder subsystem. Used to put the motors in neutral on mode changes.
      * 
      * @return The feeder subsystem
      */
+    @NotLogged
     public FeederSubsystem getFeederSubsystem() {
         return feederSubsystem;
     }
 
     /**
-     * Returns the shooter subsystem. Used for applying braking when disabled.
+     * Returns the shooter subsystem. Used to put the motors in neutral on mode changes.
      * 
      * @return The shooter subsystem
      */
+    @NotLogged
     public ShooterSubsystem getShooterSubsystem() {
         return shooterSubsystem;
     }
 
+    /**
+     * Returns the command tracer.
+     * 
+     * @return The tracer, or null when {@link LoggingConstants#kTraceCommands} is off
+     */
+    @NotLogged
+    public CommandTracer getCommandTracer() {
+        return commandTracer;
+    }
+
+    /**
+     * Wraps a group child so the tracer sees it; the scheduler only reports top-level commands.
+     * 
+     * @param command Command inside a group
+     * @return The traced command, or the command itself when tracing is off
+     */
+    private Command traced(Command command) {
+        return commandTracer != null ? commandTracer.wrap(command) : command;
+    }
+
     /**
      * Helper method to create a drive forward command with custom distance.
      * 
@@ -115,38 +379,85 @@ public class RobotContainer {
         return new FeederRunCommand(feederSubsystem, rotations);
     }
 
+    /**
+     * Helper method to create a burst fire command. The shooter must already be running.
+     * 
+     * @param balls Number of balls to fire
+     * @return BurstFireCommand that paces feeding with the flywheel recovery model
+     */
+    public Command shoot(int balls) {
+        return new BurstFireCommand(feederSubsystem, shooterSubsystem, balls);
+    }
+
+    /**
+     * Helper method to back the feeder off the flywheel by the staging distance.
+     * 
+     * @return Command that stages the feeder and stops
+     */
+    @NotLogged
+    public Command stageFeeder() {
+        return feederSubsystem.run(() -> feederSubsystem.runAtPercent(IndexerConstants.kStagePercentOutput))
+                .beforeStarting(feederSubsystem::resetEncoder)
+                .until(() -> Math.abs(feederSubsystem.getEncoderRotations()) >= IndexerConstants.kStageRotations)
+                .withTimeout(IndexerConstants.kReadyTimeoutSeconds)
+                .finallyDo(feederSubsystem::stop)
+                .withName("Stage Feeder");
+    }
+
+    /**
+     * Helper method to hold the feeder still (brake neutral) so a loaded ball stays staged.
+     * 
+     * @return Command that stops the feeder and finishes
+     */
+    @NotLogged
+    public Command holdFeeder() {
+        return feederSubsystem.runOnce(feederSubsystem::stop).withName("Hold Feeder");
+    }
+
     /**
      * Helper method to start the shooter (runs continuously until interrupted).
      * 
      * @return Shooter shoot command
      */
+    @NotLogged
     public Command startShooter() {
         return shooterSubsystem.shootCommand();
     }
 
+    /**
+     * Autonomous routine picked on the dashboard. Every option was built at startup.
+     * 
+     * @return Selected autonomous command
+     */
+    @NotLogged
+    public Command getAutonomousCommand() {
+        return autoChooser.getSelected();
+    }
+
     /**
      * Default autonomous command.
      * You can easily modify this to create different autonomous routines by:
-     * - Changing distances: driveForward(0.5) → driveForward(1.0)
-     * - Changing turn angles: turn(90) → turn(-45)
+     * - Changing distances: AutoConstants.kAutoDriveForwardDistance, or driveForward(1.0)
+     * - Changing turn angles: AutoConstants.kAutoTurnDegrees, or turn(-45)
      * - Adding feeder: runFeeder(2.0) for 2 rotations
+     * - Shooting: shoot(2) fires 2 balls as fast as the flywheel recovers
      * - Reordering commands in any sequence
      */
-    public Command getAutonomousCommand() {
-        // Example: Start shooter, wait for spin-up, drive forward, turn, run feeder
+    private Command buildDefaultAuto() {
+        // Example: Start shooter, wait for spin-up, drive forward, turn, shoot
         return new ParallelCommandGroup(
             // Shooter runs continuously (never finishes)
-            startShooter(),
-            // Sequential group: wait for spin-up, then drive, then turn, then feed
+            traced(startShooter()),
+            // Sequential group: wait for spin-up, then drive, then turn, then shoot
             new SequentialCommandGroup(
                 // Wait 2 seconds for shooter to spin up
-                new WaitCommand(1.0),
-                // Drive forward 0.5m (you can change this to any distance)
-                driveForward(0.5),
-                // Turn 90 degrees (you can change this to any angle)
-                turn(90.0),
-                // Run feeder for 2 rotations (you can change this to any number)
-                runFeeder(2.0)
+                traced(new WaitCommand(1.0)),
+                // Drive forward (wheel meters, measured through the gear reduction)
+                traced(driveForward(AutoConstants.kAutoDriveForwardDistance)),
+                // Turn in place (degrees, from the wheel distance difference over the track width)
+                traced(turn(AutoConstants.kAutoTurnDegrees)),
+                // Fire the preloaded balls, each as soon as the flywheel has recovered
+                traced(shoot(AutoConstants.kAutoBallCount))
             )
         );
     }
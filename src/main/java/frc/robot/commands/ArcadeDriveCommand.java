@@ -7,7 +7,9 @@ package frc.robot.commands;
 import frc.robot.Constants.DriveConstants;
 import frc.robot.Constants.OIConstants;
 import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.util.InputLatencyTracker;
 import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.RobotController;
 import edu.wpi.first.wpilibj2.command.Command;
 import java.util.function.DoubleSupplier;
 
@@ -18,6 +20,7 @@ public class ArcadeDriveCommand extends Command {
     private final DriveSubsystem m_driveSubsystem;
     private final DoubleSupplier m_speed;
     private final DoubleSupplier m_turn;
+    private final InputLatencyTracker m_latency;
 
     /**
      * Creates a new ArcadeDriveCommand.
@@ -27,9 +30,23 @@ public class ArcadeDriveCommand extends Command {
      * @param turn Supplier for turn speed
      */
     public ArcadeDriveCommand(DriveSubsystem driveSubsystem, DoubleSupplier speed, DoubleSupplier turn) {
+        this(driveSubsystem, speed, turn, null);
+    }
+
+    /**
+     * Creates a new ArcadeDriveCommand that reports its input-to-actuation latency.
+     *
+     * @param driveSubsystem The drive subsystem to use
+     * @param speed Supplier for forward/backward speed
+     * @param turn Supplier for turn speed
+     * @param latency Tracker to record each cycle in, or null to skip timing
+     */
+    public ArcadeDriveCommand(DriveSubsystem driveSubsystem, DoubleSupplier speed, DoubleSupplier turn,
+            InputLatencyTracker latency) {
         m_driveSubsystem = driveSubsystem;
         m_speed = speed;
         m_turn = turn;
+        m_latency = latency;
         addRequirements(driveSubsystem);
     }
 
@@ -38,6 +55,7 @@ public class ArcadeDriveCommand extends Command {
         // Get raw joystick values
         double speedValue = m_speed.getAsDouble();
         double turnValue = m_turn.getAsDouble();
+        long readMicros = m_latency != null ? RobotController.getFPGATime() : 0;
         
         // Validate inputs to prevent NaN/Infinity from damaging motors
         if (!Double.isFinite(speedValue)) {
@@ -61,8 +79,18 @@ public class ArcadeDriveCommand extends Command {
         speedValue *= DriveConstants.kMaxDriveSpeedPercent;
         turnValue *= DriveConstants.kMaxDriveSpeedPercent;
         
+        long computedMicros = m_latency != null ? RobotController.getFPGATime() : 0;
+
         // Use arcade drive method which applies turn sensitivity multiplier
         m_driveSubsystem.arcadeDrive(speedValue, turnValue);
+
+        if (m_latency != null) {
+            m_latency.recordCycle(readMicros, computedMicros, RobotController.getFPGATime(),
+                    m_driveSubsystem.getLeftOutput());
+            // Reported output was read in this loop's periodic(), so it reflects earlier writes
+            m_latency.recordApplied(m_driveSubsystem.getLeftAppliedDutyCycle(),
+                    m_driveSubsystem.getLeftAppliedMicros());
+        }
     }
 
     // Note: No end() method needed - this is a default command that should seamlessly
@@ -0,0 +1,121 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import frc.robot.Constants.IndexerConstants;
+import frc.robot.subsystems.FeederSubsystem;
+import frc.robot.subsystems.ShooterSubsystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj2.command.Command;
+
+/**
+ * Fires a fixed number of balls, pacing feed pulses with the shooter's flywheel model.
+ *
+ * <p>After each feed pulse the flywheel model predicts when the wheel will be back in tolerance
+ * ({@link ShooterSubsystem#predictSecondsToSpeed(double)}, starting from the target minus
+ * {@link IndexerConstants#kShotVelocityDropRPS}). The next pulse is held until that time and then
+ * until the measured velocity confirms it. Waiting for the prediction first matters because the
+ * dip from a ball only shows up in the velocity signal a cycle or two after the feed stops.
+ *
+ * <p>Only the feeder is required: the flywheel is expected to already be running (e.g. from
+ * {@link ShooterSubsystem#shootCommand()} in parallel). When the command ends it publishes the
+ * predicted and actual burst duration under "Burst/" so the model constants can be tightened.
+ */
+public class BurstFireCommand extends Command {
+    private final FeederSubsystem m_feederSubsystem;
+    private final ShooterSubsystem m_shooterSubsystem;
+    private final int m_ballCount;
+    private final Timer m_burstTimer = new Timer();
+
+    private double m_recoverySeconds;
+    private double m_predictedSeconds;
+    private double m_nextFeedTime;
+    private boolean m_feeding;
+    private int m_shotsFired;
+
+    /**
+     * Creates a new BurstFireCommand.
+     *
+     * @param feederSubsystem The feeder that pushes balls into the shooter
+     * @param shooterSubsystem The shooter, used for its velocity and recovery model only
+     * @param ballCount Number of balls to fire (must be positive)
+     * @throws IllegalArgumentException if ballCount is not positive
+     */
+    public BurstFireCommand(FeederSubsystem feederSubsystem, ShooterSubsystem shooterSubsystem, int ballCount) {
+        if (ballCount <= 0) {
+            throw new IllegalArgumentException("Ball count must be positive, got: " + ballCount);
+        }
+        m_feederSubsystem = feederSubsystem;
+        m_shooterSubsystem = shooterSubsystem;
+        m_ballCount = ballCount;
+        setName("Burst Fire");
+        addRequirements(feederSubsystem);
+    }
+
+    @Override
+    public void initialize() {
+        double target = m_shooterSubsystem.getTargetVelocityRPS();
+        double afterShot = target - Math.copySign(IndexerConstants.kShotVelocityDropRPS, target);
+        m_recoverySeconds = m_shooterSubsystem.predictSecondsToSpeed(afterShot);
+
+        // First pulse waits for spin-up from wherever the wheel is now
+        m_nextFeedTime = m_shooterSubsystem.predictSecondsToSpeed(m_shooterSubsystem.getVelocityRPS());
+        m_predictedSeconds = m_nextFeedTime
+                + m_ballCount * IndexerConstants.kFeedPulseSeconds
+                + (m_ballCount - 1) * m_recoverySeconds;
+
+        m_feeding = false;
+        m_shotsFired = 0;
+        m_burstTimer.restart();
+    }
+
+    @Override
+    public void execute() {
+        if (m_feeding) {
+            m_feederSubsystem.runAtPercent(m_shooterSubsystem.getFeederPercent());
+            if (Math.abs(m_feederSubsystem.getEncoderRotations()) >= IndexerConstants.kRotationsPerShot) {
+                m_feederSubsystem.stop();
+                m_feeding = false;
+                m_shotsFired++;
+                m_nextFeedTime = m_burstTimer.get() + m_recoverySeconds;
+            }
+            return;
+        }
+
+        m_feederSubsystem.stop();
+        if (m_burstTimer.get() >= m_nextFeedTime && m_shooterSubsystem.isAtSpeed()) {
+            m_feederSubsystem.resetEncoder();
+            m_feeding = true;
+            m_shooterSubsystem.captureShot();
+        }
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        m_feederSubsystem.stop();
+
+        // DataLogManager records NetworkTables, so these also land in the match log
+        SmartDashboard.putNumber("Burst/Predicted (s)", m_predictedSeconds);
+        SmartDashboard.putNumber("Burst/Actual (s)", m_burstTimer.get());
+        SmartDashboard.putNumber("Burst/Shots", m_shotsFired);
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (!m_feederSubsystem.isHealthy() || !m_shooterSubsystem.isHealthy()) {
+            System.err.println("WARNING: BurstFireCommand aborted, feeder or shooter unhealthy");
+            return true;
+        }
+
+        // Model said ready long ago but the wheel never confirmed it
+        if (!m_feeding && m_burstTimer.get() > m_nextFeedTime + IndexerConstants.kReadyTimeoutSeconds) {
+            System.err.println("WARNING: BurstFireCommand gave up, shooter never reached speed");
+            return true;
+        }
+
+        return m_shotsFired >= m_ballCount;
+    }
+}
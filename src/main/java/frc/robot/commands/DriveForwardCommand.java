@@ -48,8 +48,8 @@ public class DriveForwardCommand extends Command {
 
     @Override
     public void end(boolean interrupted) {
-        // Stop the drive when command ends
-        m_driveSubsystem.setMotors(0, 0);
+        // Actively stop rather than coast, so the next segment starts from rest
+        m_driveSubsystem.stop();
     }
 
     @Override
@@ -59,6 +59,12 @@ public class DriveForwardCommand extends Command {
             System.err.println("WARNING: DriveForwardCommand timed out after " + MAX_ITERATIONS + " iterations");
             return true;
         }
+
+        // Don't burn auto time driving blind if neither encoder is reporting
+        if (!m_driveSubsystem.isDistanceHealthy()) {
+            System.err.println("WARNING: DriveForwardCommand aborted, no healthy drive encoder");
+            return true;
+        }
         
         // Since encoders were reset in initialize(), current distance is just getEncoderMeters()
         double currentDistance = m_driveSubsystem.getEncoderMeters();
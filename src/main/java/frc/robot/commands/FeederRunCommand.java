@@ -62,6 +62,12 @@ public class FeederRunCommand extends Command {
             System.err.println("WARNING: FeederRunCommand timed out after " + MAX_ITERATIONS + " iterations");
             return true;
         }
+
+        // Rotations can't be counted without the feeder encoder
+        if (!m_feederSubsystem.isHealthy()) {
+            System.err.println("WARNING: FeederRunCommand aborted, feeder motor unhealthy");
+            return true;
+        }
         
         // Calculate current rotations since start
         double currentRotations = m_feederSubsystem.getEncoderRotations() - m_initialRotations;
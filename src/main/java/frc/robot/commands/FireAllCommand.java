@@ -0,0 +1,167 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import frc.robot.Constants.IndexerConstants;
+import frc.robot.subsystems.FeederSubsystem;
+import frc.robot.subsystems.ShooterSubsystem;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+
+/**
+ * Empties the hopper through the shooter as fast as the flywheel can sustain.
+ *
+ * <p>Runs the flywheel at target velocity and steps the feeder through an indexing state machine:
+ * <ol>
+ *   <li>STAGE: back the first ball off the flywheel while it spins up</li>
+ *   <li>WAIT_FOR_READY: hold until the flywheel is at speed</li>
+ *   <li>FIRE: feed exactly one ball's worth of feeder rotations</li>
+ *   <li>RECOVER: stop feeding until the flywheel is back at speed, then FIRE again</li>
+ * </ol>
+ *
+ * <p>There is no ball sensor, so the flywheel is used as one: a ball going through drags it out of
+ * tolerance. If one ball's worth of feeding produces no dip, the hopper is empty and the command
+ * ends. It also ends after {@link IndexerConstants#kHopperCapacity} shots, if the flywheel never
+ * gets to speed, or if either motor is unhealthy.
+ */
+public class FireAllCommand extends Command {
+    /** Indexer states. */
+    public enum State {
+        STAGE,
+        WAIT_FOR_READY,
+        FIRE,
+        RECOVER,
+        DONE
+    }
+
+    private final FeederSubsystem m_feederSubsystem;
+    private final ShooterSubsystem m_shooterSubsystem;
+    private final Timer m_stateTimer = new Timer();
+    private State m_state = State.DONE;
+    private boolean m_shotDetected;
+    private int m_shotsFired;
+
+    /**
+     * Creates a new FireAllCommand.
+     *
+     * @param feederSubsystem The feeder that indexes balls into the shooter
+     * @param shooterSubsystem The shooter, kept at target velocity while firing
+     */
+    public FireAllCommand(FeederSubsystem feederSubsystem, ShooterSubsystem shooterSubsystem) {
+        m_feederSubsystem = feederSubsystem;
+        m_shooterSubsystem = shooterSubsystem;
+        setName("Fire All");
+        addRequirements(feederSubsystem, shooterSubsystem);
+    }
+
+    @Override
+    public void initialize() {
+        m_shotsFired = 0;
+        enterState(State.STAGE);
+    }
+
+    @Override
+    public void execute() {
+        m_shooterSubsystem.runAtTargetVelocity();
+        boolean atSpeed = m_shooterSubsystem.isAtSpeed();
+        double feederRotations = Math.abs(m_feederSubsystem.getEncoderRotations());
+
+        switch (m_state) {
+            case STAGE:
+                m_feederSubsystem.runAtPercent(IndexerConstants.kStagePercentOutput);
+                if (feederRotations >= IndexerConstants.kStageRotations) {
+                    enterState(State.WAIT_FOR_READY);
+                }
+                break;
+
+            case WAIT_FOR_READY:
+                m_feederSubsystem.stop();
+                if (atSpeed) {
+                    enterState(State.FIRE);
+                } else if (m_stateTimer.hasElapsed(IndexerConstants.kReadyTimeoutSeconds)) {
+                    System.err.println("WARNING: FireAllCommand gave up, shooter never reached speed");
+                    enterState(State.DONE);
+                }
+                break;
+
+            case FIRE:
+                m_feederSubsystem.runAtPercent(m_shooterSubsystem.getFeederPercent());
+                m_shotDetected |= !atSpeed;
+                if (feederRotations >= IndexerConstants.kRotationsPerShot) {
+                    enterState(State.RECOVER);
+                }
+                break;
+
+            case RECOVER:
+                m_feederSubsystem.stop();
+                m_shotDetected |= !atSpeed;
+                if (m_shotDetected) {
+                    if (atSpeed) {
+                        m_shotsFired++;
+                        enterState(m_shotsFired >= IndexerConstants.kHopperCapacity ? State.DONE : State.FIRE);
+                    } else if (m_stateTimer.hasElapsed(IndexerConstants.kReadyTimeoutSeconds)) {
+                        System.err.println("WARNING: FireAllCommand gave up, shooter did not recover");
+                        enterState(State.DONE);
+                    }
+                } else if (m_stateTimer.hasElapsed(IndexerConstants.kShotDetectWindowSeconds)) {
+                    // Fed a full ball's worth and the flywheel never noticed: hopper is empty
+                    enterState(State.DONE);
+                }
+                break;
+
+            case DONE:
+            default:
+                m_feederSubsystem.stop();
+                break;
+        }
+    }
+
+    private void enterState(State state) {
+        m_state = state;
+        m_stateTimer.restart();
+        if (state == State.STAGE || state == State.FIRE) {
+            // Both states count feeder rotations from where they start
+            m_feederSubsystem.resetEncoder();
+            m_shotDetected = false;
+        }
+        if (state == State.FIRE) {
+            m_shooterSubsystem.captureShot();
+        }
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        // Shooter falls back to its default command; the feeder must not keep pushing
+        m_feederSubsystem.stop();
+        m_state = State.DONE;
+    }
+
+    @Override
+    public boolean isFinished() {
+        if (!m_feederSubsystem.isHealthy() || !m_shooterSubsystem.isHealthy()) {
+            System.err.println("WARNING: FireAllCommand aborted, feeder or shooter unhealthy");
+            return true;
+        }
+        return m_state == State.DONE;
+    }
+
+    /**
+     * Current indexer state.
+     *
+     * @return The state
+     */
+    public State getState() {
+        return m_state;
+    }
+
+    /**
+     * Balls fired since the command started.
+     *
+     * @return Shot count
+     */
+    public int getShotsFired() {
+        return m_shotsFired;
+    }
+}
@@ -0,0 +1,92 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import frc.robot.subsystems.DriveSubsystem;
+import frc.robot.util.TrajectoryService;
+import edu.wpi.first.math.controller.LTVUnicycleController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Drives to a goal pose along a trajectory from {@link TrajectoryService}.
+ *
+ * <p>The trajectory is requested in initialize() and generated in the background. Until it is
+ * ready the drive is held stopped; once it arrives it is followed with an LTV unicycle controller
+ * on the encoder odometry.
+ */
+public class FollowTrajectoryCommand extends Command {
+    private final DriveSubsystem m_driveSubsystem;
+    private final TrajectoryService m_trajectoryService;
+    private final Supplier<Pose2d> m_goal;
+    private final LTVUnicycleController m_controller = new LTVUnicycleController(TimedRobot.kDefaultPeriod);
+    private final Timer m_timer = new Timer();
+    private CompletableFuture<Trajectory> m_request;
+    private Trajectory m_trajectory;
+
+    /**
+     * Creates a new FollowTrajectoryCommand.
+     *
+     * @param driveSubsystem The drive subsystem to use
+     * @param trajectoryService Service that generates the trajectory
+     * @param goal Pose to drive to, in the odometry frame; read each time the command starts
+     */
+    public FollowTrajectoryCommand(DriveSubsystem driveSubsystem, TrajectoryService trajectoryService,
+            Supplier<Pose2d> goal) {
+        m_driveSubsystem = driveSubsystem;
+        m_trajectoryService = trajectoryService;
+        m_goal = goal;
+        addRequirements(driveSubsystem);
+    }
+
+    @Override
+    public void initialize() {
+        m_trajectory = null;
+        m_request = m_trajectoryService.request(m_driveSubsystem.getPose(), m_goal.get());
+    }
+
+    @Override
+    public void execute() {
+        if (m_trajectory == null) {
+            // Hold still until the worker delivers; never wait on the future here
+            m_driveSubsystem.setMotors(0, 0);
+            if (!m_request.isDone() || m_request.isCompletedExceptionally()) {
+                return;
+            }
+            m_trajectory = m_request.getNow(null);
+            m_timer.restart();
+        }
+
+        Trajectory.State desired = m_trajectory.sample(m_timer.get());
+        m_driveSubsystem.driveRobotRelative(m_controller.calculate(m_driveSubsystem.getPose(), desired));
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        // Actively stop rather than coast, so the next segment starts from rest
+        m_driveSubsystem.stop();
+    }
+
+    @Override
+    public boolean isFinished() {
+        // Turning and position tracking both need both encoders
+        if (!m_driveSubsystem.isHealthy()) {
+            System.err.println("WARNING: FollowTrajectoryCommand aborted, drive motor unhealthy");
+            return true;
+        }
+
+        if (m_request.isCompletedExceptionally()) {
+            System.err.println("WARNING: FollowTrajectoryCommand aborted, trajectory generation failed");
+            return true;
+        }
+
+        return m_trajectory != null && m_timer.hasElapsed(m_trajectory.getTotalTimeSeconds());
+    }
+}
@@ -61,8 +61,8 @@ public class TurnCommand extends Command {
 
     @Override
     public void end(boolean interrupted) {
-        // Stop the drive when command ends
-        m_driveSubsystem.setMotors(0, 0);
+        // Actively stop rather than coast, so the next segment starts from rest
+        m_driveSubsystem.stop();
     }
 
     @Override
@@ -77,6 +77,12 @@ public class TurnCommand extends Command {
             System.err.println("WARNING: TurnCommand timed out after " + MAX_ITERATIONS + " iterations");
             return true;
         }
+
+        // Turn angle comes from the difference of both sides, so both encoders must be reporting
+        if (!m_driveSubsystem.isHealthy()) {
+            System.err.println("WARNING: TurnCommand aborted, drive encoder unhealthy");
+            return true;
+        }
         
         // Validate track width to prevent division by zero
         if (DriveConstants.kTrackWidthMeters <= 0) {
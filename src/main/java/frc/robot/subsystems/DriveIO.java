@@ -0,0 +1,70 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import frc.robot.util.LogTable;
+import frc.robot.util.LoggableInputs;
+
+/**
+ * Hardware interface for the drivetrain. Both sides use robot-forward as positive; any motor
+ * inversion is handled by the implementation.
+ *
+ * <p>Replay uses the no-op defaults: the inputs are restored from the log instead.
+ */
+public interface DriveIO {
+    /** Everything the drive reads from hardware each cycle. */
+    class DriveIOInputs implements LoggableInputs {
+        public double leftPositionRotations = 0.0;
+        public double rightPositionRotations = 0.0;
+        public boolean leftHealthy = true;
+        public boolean rightHealthy = true;
+        public double forwardAccelMetersPerSecondSquared = 0.0;
+        public double leftAppliedDutyCycle = 0.0;
+        public double leftAppliedTimestampSeconds = 0.0;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("LeftPositionRotations", leftPositionRotations);
+            table.put("RightPositionRotations", rightPositionRotations);
+            table.put("LeftHealthy", leftHealthy);
+            table.put("RightHealthy", rightHealthy);
+            table.put("ForwardAccel", forwardAccelMetersPerSecondSquared);
+            table.put("LeftAppliedDutyCycle", leftAppliedDutyCycle);
+            table.put("LeftAppliedTimestamp", leftAppliedTimestampSeconds);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            leftPositionRotations = table.get("LeftPositionRotations", leftPositionRotations);
+            rightPositionRotations = table.get("RightPositionRotations", rightPositionRotations);
+            leftHealthy = table.get("LeftHealthy", leftHealthy);
+            rightHealthy = table.get("RightHealthy", rightHealthy);
+            forwardAccelMetersPerSecondSquared = table.get("ForwardAccel", forwardAccelMetersPerSecondSquared);
+            leftAppliedDutyCycle = table.get("LeftAppliedDutyCycle", leftAppliedDutyCycle);
+            leftAppliedTimestampSeconds = table.get("LeftAppliedTimestamp", leftAppliedTimestampSeconds);
+        }
+    }
+
+    /**
+     * Reads the latest sensor values.
+     *
+     * @param inputs Inputs to update
+     */
+    default void updateInputs(DriveIOInputs inputs) {}
+
+    /**
+     * Sets the duty cycle of each side.
+     *
+     * @param left Left duty cycle (-1.0 to 1.0)
+     * @param right Right duty cycle (-1.0 to 1.0)
+     */
+    default void setDutyCycle(double left, double right) {}
+
+    /** Puts both sides in their configured neutral mode. */
+    default void setNeutral() {}
+
+    /** Zeroes both encoders. */
+    default void resetPosition() {}
+}
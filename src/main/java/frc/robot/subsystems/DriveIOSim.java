@@ -0,0 +1,75 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.Constants.SimConstants;
+
+/** Drive IO backed by a physics model of each side, for simulation. */
+public class DriveIOSim implements DriveIO {
+    private final DCMotorSim m_leftSim = createSideSim();
+    private final DCMotorSim m_rightSim = createSideSim();
+    private double m_leftOffsetRotations = 0.0;
+    private double m_rightOffsetRotations = 0.0;
+    private double m_leftDutyCycle = 0.0;
+    private double m_rightDutyCycle = 0.0;
+    private double m_lastMeters = 0.0;
+    private double m_lastMetersPerSecond = 0.0;
+
+    private static DCMotorSim createSideSim() {
+        DCMotor motor = DCMotor.getKrakenX60(1);
+        return new DCMotorSim(LinearSystemId.createDCMotorSystem(motor, SimConstants.kDriveSideMoiKgM2, 1.0), motor);
+    }
+
+    @Override
+    public void updateInputs(DriveIOInputs inputs) {
+        double batteryVolts = RobotController.getBatteryVoltage();
+        m_leftSim.setInputVoltage(m_leftDutyCycle * batteryVolts);
+        m_rightSim.setInputVoltage(m_rightDutyCycle * batteryVolts);
+        m_leftSim.update(TimedRobot.kDefaultPeriod);
+        m_rightSim.update(TimedRobot.kDefaultPeriod);
+
+        inputs.leftPositionRotations = Units.radiansToRotations(m_leftSim.getAngularPositionRad()) - m_leftOffsetRotations;
+        inputs.rightPositionRotations = Units.radiansToRotations(m_rightSim.getAngularPositionRad()) - m_rightOffsetRotations;
+        inputs.leftHealthy = true;
+        inputs.rightHealthy = true;
+        // The model applies output as soon as it's set
+        inputs.leftAppliedDutyCycle = m_leftDutyCycle;
+        inputs.leftAppliedTimestampSeconds = RobotController.getFPGATime() / 1e6;
+
+        // The model has no wheel slip, so the chassis moves exactly as the wheels do
+        double meters = Units.radiansToRotations(m_leftSim.getAngularPositionRad() + m_rightSim.getAngularPositionRad())
+                / 2.0 * DriveConstants.kTalonFXRotationsToMeters;
+        double metersPerSecond = (meters - m_lastMeters) / TimedRobot.kDefaultPeriod;
+        inputs.forwardAccelMetersPerSecondSquared = (metersPerSecond - m_lastMetersPerSecond) / TimedRobot.kDefaultPeriod;
+        m_lastMeters = meters;
+        m_lastMetersPerSecond = metersPerSecond;
+    }
+
+    @Override
+    public void setDutyCycle(double left, double right) {
+        m_leftDutyCycle = left;
+        m_rightDutyCycle = right;
+    }
+
+    @Override
+    public void setNeutral() {
+        // Brake neutral mode: 0 V across the windings is the same short the motor applies
+        m_leftDutyCycle = 0.0;
+        m_rightDutyCycle = 0.0;
+    }
+
+    @Override
+    public void resetPosition() {
+        m_leftOffsetRotations = Units.radiansToRotations(m_leftSim.getAngularPositionRad());
+        m_rightOffsetRotations = Units.radiansToRotations(m_rightSim.getAngularPositionRad());
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.Utils;
+import com.ctre.phoenix6.configs.MotorOutputConfigs;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.units.measure.Angle;
+import edu.wpi.first.wpilibj.BuiltInAccelerometer;
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.util.CanBudget;
+import frc.robot.util.CoalescingMotorOutput;
+import frc.robot.util.DeviceHealth;
+import frc.robot.util.DeviceHealthMonitor;
+
+/** Drive IO for the two TalonFX (Kraken) drive motors. */
+public class DriveIOTalonFX implements DriveIO {
+    private static final double kGravity = 9.81;
+
+    private final TalonFX m_leftDrive = new TalonFX(DriveConstants.kLeftMotorPort);
+    private final TalonFX m_rightDrive = new TalonFX(DriveConstants.kRightMotorPort);
+    private final StatusSignal<Angle> m_leftPosition = m_leftDrive.getPosition();
+    private final StatusSignal<Angle> m_rightPosition = m_rightDrive.getPosition();
+    private final StatusSignal<Double> m_leftDutyCycle = m_leftDrive.getDutyCycle();
+    private final BuiltInAccelerometer m_accelerometer = new BuiltInAccelerometer();
+    private final CoalescingMotorOutput m_leftOutput;
+    private final CoalescingMotorOutput m_rightOutput;
+    private final DeviceHealth m_leftHealth;
+    private final DeviceHealth m_rightHealth;
+
+    public DriveIOTalonFX(CanBudget canBudget, DeviceHealthMonitor healthMonitor) {
+        // Inversion stays in software (see setDutyCycle), so only the neutral mode is configured
+        MotorOutputConfigs motorOutput = new MotorOutputConfigs().withNeutralMode(DriveConstants.kNeutralMode);
+        StatusCode leftStatus = m_leftDrive.getConfigurator().apply(motorOutput);
+        StatusCode rightStatus = m_rightDrive.getConfigurator().apply(motorOutput);
+        if (!leftStatus.isOK() || !rightStatus.isOK()) {
+            System.err.println("WARNING: Failed to set drive neutral mode: " + leftStatus + ", " + rightStatus);
+        }
+
+        m_leftHealth = healthMonitor.register("Drive Left", m_leftDrive, m_leftPosition);
+        m_rightHealth = healthMonitor.register("Drive Right", m_rightDrive, m_rightPosition);
+
+        // Only position is read by control code (auto commands, dashboard); health signals run slower.
+        // Left duty cycle is read back at the control rate for input latency tracking.
+        canBudget.configureDevice("Drive Left", m_leftDrive,
+                new BaseStatusSignal[] {m_leftPosition, m_leftDutyCycle}, m_leftHealth.getTelemetrySignals());
+        canBudget.configureDevice("Drive Right", m_rightDrive,
+                new BaseStatusSignal[] {m_rightPosition}, m_rightHealth.getTelemetrySignals());
+        m_leftOutput = canBudget.createOutput("Drive Left", m_leftDrive);
+        m_rightOutput = canBudget.createOutput("Drive Right", m_rightDrive);
+    }
+
+    @Override
+    public void updateInputs(DriveIOInputs inputs) {
+        BaseStatusSignal.refreshAll(m_leftPosition, m_rightPosition, m_leftDutyCycle);
+        inputs.leftPositionRotations = m_leftPosition.getValueAsDouble();
+        // Right motor is mounted mirrored, so its sensor is inverted along with its output
+        inputs.rightPositionRotations = -m_rightPosition.getValueAsDouble();
+        inputs.leftHealthy = m_leftHealth.isHealthy();
+        inputs.rightHealthy = m_rightHealth.isHealthy();
+        inputs.forwardAccelMetersPerSecondSquared =
+                DriveConstants.kAccelerometerForwardSign * m_accelerometer.getX() * kGravity;
+        inputs.leftAppliedDutyCycle = m_leftDutyCycle.getValueAsDouble();
+        // When the frame was received. Phoenix stamps it on its own clock, so shift it onto the FPGA
+        // clock the latency tracker stamps requests with
+        double phoenixToFpga = Timer.getFPGATimestamp() - Utils.getCurrentTimeSeconds();
+        inputs.leftAppliedTimestampSeconds =
+                m_leftDutyCycle.getAllTimestamps().getSystemTimestamp().getTime() + phoenixToFpga;
+    }
+
+    @Override
+    public void setDutyCycle(double left, double right) {
+        m_leftOutput.setDutyCycle(left);
+        m_rightOutput.setDutyCycle(-right); // Inverted to match physical orientation
+    }
+
+    @Override
+    public void setNeutral() {
+        m_leftOutput.setNeutral();
+        m_rightOutput.setNeutral();
+    }
+
+    @Override
+    public void resetPosition() {
+        m_leftDrive.setPosition(0);
+        m_rightDrive.setPosition(0);
+    }
+}
@@ -1,37 +1,301 @@
 package frc.robot.subsystems;
 
 import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.Logged.Importance;
+import edu.wpi.first.epilogue.NotLogged;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.Constants.AutoConstants;
 import frc.robot.Constants.DriveConstants;
-import com.ctre.phoenix6.hardware.TalonFX;
+import frc.robot.subsystems.DriveIO.DriveIOInputs;
+import frc.robot.util.InputLog;
+import frc.robot.util.StopController;
+import frc.robot.util.TractionControl;
 
+@Logged
 public class DriveSubsystem extends SubsystemBase {
-    private final TalonFX m_leftDrive = new TalonFX(DriveConstants.kLeftMotorPort);
-    private final TalonFX m_rightDrive = new TalonFX(DriveConstants.kRightMotorPort);
+    @NotLogged
+    private final DriveIO m_io;
+    @NotLogged
+    private final DriveIOInputs m_inputs = new DriveIOInputs();
+    @NotLogged
+    private final InputLog m_inputLog;
+
+    // Encoder-only odometry, relative to where the robot was when code started (x forward, CCW positive)
+    @NotLogged
+    private double m_poseXMeters = 0.0;
+    @NotLogged
+    private double m_poseYMeters = 0.0;
+    @NotLogged
+    private double m_headingRadians = 0.0;
+    @NotLogged
+    private double m_lastLeftMeters = 0.0;
+    @NotLogged
+    private double m_lastRightMeters = 0.0;
+    @NotLogged
+    private double m_forwardMetersPerSecond = 0.0;
+    @NotLogged
+    private double m_turnRadiansPerSecond = 0.0;
+    @NotLogged
+    private double m_leftOutput = 0.0;
+    // Raw encoder wheel speeds, for the active stop
+    @NotLogged
+    private double m_leftMetersPerSecond = 0.0;
+    @NotLogged
+    private double m_rightMetersPerSecond = 0.0;
+    @NotLogged
+    private final StopController m_stop = new StopController(
+            DriveConstants.kStopToleranceMetersPerSecond, DriveConstants.kStopTimeoutSeconds);
+    @NotLogged
+    private final TractionControl m_tractionControl =
+            new TractionControl(DCMotor.getKrakenX60(1), AutoConstants.kRobotMassKg, AutoConstants.kWheelCof);
+    @NotLogged
+    private final DifferentialDriveKinematics m_kinematics =
+            new DifferentialDriveKinematics(DriveConstants.kTrackWidthMeters);
+
+    /**
+     * Creates the drive subsystem.
+     *
+     * @param io Hardware, simulation or replay IO
+     * @param inputLog Log that records (or, in replay, supplies) the IO inputs each cycle
+     */
+    public DriveSubsystem(DriveIO io, InputLog inputLog) {
+        m_io = io;
+        m_inputLog = inputLog;
 
-    public DriveSubsystem() {
         // Reset encoders to zero on initialization
         resetEncoders();
     }
 
+    @Override
+    public void periodic() {
+        m_io.updateInputs(m_inputs);
+        m_inputLog.process("Drive", m_inputs);
+        updateOdometry();
+        runStop();
+    }
+
+    private void runStop() {
+        if (!m_stop.isStopping()) {
+            return;
+        }
+        // The loop needs both wheel speeds; without them go straight to brake neutral
+        double speed = isHealthy()
+                ? Math.max(Math.abs(m_leftMetersPerSecond), Math.abs(m_rightMetersPerSecond))
+                : 0.0;
+        if (m_stop.update(speed)) {
+            double left = MathUtil.clamp(-DriveConstants.kStopP * m_leftMetersPerSecond,
+                    -DriveConstants.kStopMaxDutyCycle, DriveConstants.kStopMaxDutyCycle);
+            double right = MathUtil.clamp(-DriveConstants.kStopP * m_rightMetersPerSecond,
+                    -DriveConstants.kStopMaxDutyCycle, DriveConstants.kStopMaxDutyCycle);
+            m_leftOutput = left;
+            m_io.setDutyCycle(left, right);
+        } else {
+            m_leftOutput = 0.0;
+            m_io.setNeutral();
+        }
+    }
+
+    private void updateOdometry() {
+        double left = getLeftEncoderMeters();
+        double right = getRightEncoderMeters();
+        double deltaLeft = left - m_lastLeftMeters;
+        double deltaRight = right - m_lastRightMeters;
+        m_lastLeftMeters = left;
+        m_lastRightMeters = right;
+        m_leftMetersPerSecond = deltaLeft / TimedRobot.kDefaultPeriod;
+        m_rightMetersPerSecond = deltaRight / TimedRobot.kDefaultPeriod;
+
+        double distance;
+        double turn = 0.0;
+        if (isHealthy()) {
+            double dt = TimedRobot.kDefaultPeriod;
+            m_tractionControl.update(deltaLeft / dt, deltaRight / dt, m_inputs.forwardAccelMetersPerSecondSquared);
+            // A slipping wheel's encoder overstates travel; rebuild it from the chassis speed estimate
+            double chassisDistance = m_tractionControl.getChassisMetersPerSecond() * dt;
+            boolean leftSlipping = m_tractionControl.isLeftSlipping();
+            boolean rightSlipping = m_tractionControl.isRightSlipping();
+            if (leftSlipping && rightSlipping) {
+                deltaLeft = chassisDistance;
+                deltaRight = chassisDistance;
+            } else if (leftSlipping) {
+                deltaLeft = 2.0 * chassisDistance - deltaRight;
+            } else if (rightSlipping) {
+                deltaRight = 2.0 * chassisDistance - deltaLeft;
+            }
+            distance = (deltaLeft + deltaRight) / 2.0;
+            turn = (deltaRight - deltaLeft) / DriveConstants.kTrackWidthMeters;
+        } else if (isDistanceHealthy()) {
+            // No heading without both sides; assume straight travel on the healthy one
+            distance = m_inputs.leftHealthy ? deltaLeft : deltaRight;
+        } else {
+            m_forwardMetersPerSecond = 0.0;
+            m_turnRadiansPerSecond = 0.0;
+            m_tractionControl.reset(0.0);
+            return;
+        }
+        m_headingRadians += turn;
+        m_poseXMeters += distance * Math.cos(m_headingRadians);
+        m_poseYMeters += distance * Math.sin(m_headingRadians);
+        m_forwardMetersPerSecond = distance / TimedRobot.kDefaultPeriod;
+        m_turnRadiansPerSecond = turn / TimedRobot.kDefaultPeriod;
+        if (!isHealthy()) {
+            // Slip detection needs both wheel speeds; start over once they're back
+            m_tractionControl.reset(m_forwardMetersPerSecond);
+        }
+    }
+
+    /**
+     * Whether the left wheels are slipping.
+     *
+     * @return True while traction control detects slip
+     */
+    @Logged(name = "Left Slip", importance = Importance.INFO)
+    public boolean isLeftSlipping() {
+        return m_tractionControl.isLeftSlipping();
+    }
+
+    /**
+     * Whether the right wheels are slipping.
+     *
+     * @return True while traction control detects slip
+     */
+    @Logged(name = "Right Slip", importance = Importance.INFO)
+    public boolean isRightSlipping() {
+        return m_tractionControl.isRightSlipping();
+    }
+
+    /**
+     * Moves the odometry to a known pose, e.g. the start of an autonomous routine.
+     *
+     * @param pose New robot pose
+     */
+    public void resetPose(Pose2d pose) {
+        m_poseXMeters = pose.getX();
+        m_poseYMeters = pose.getY();
+        m_headingRadians = pose.getRotation().getRadians();
+    }
+
+    /**
+     * Kinematics for the drive's track width.
+     *
+     * @return Drive kinematics
+     */
+    @NotLogged
+    public DifferentialDriveKinematics getKinematics() {
+        return m_kinematics;
+    }
+
+    /**
+     * Robot-relative velocity from the last encoder update.
+     *
+     * @return Forward and turn rate (no sideways component on a differential drive)
+     */
+    @NotLogged
+    public ChassisSpeeds getRobotRelativeSpeeds() {
+        return new ChassisSpeeds(m_forwardMetersPerSecond, 0.0, m_turnRadiansPerSecond);
+    }
+
+    /**
+     * Drives at a robot-relative velocity, open loop: each side's wheel speed is converted to a duty
+     * cycle by {@link DriveConstants#kMaxSpeedMetersPerSecond}. Used by path following.
+     *
+     * @param speeds Desired robot-relative velocity
+     */
+    public void driveRobotRelative(ChassisSpeeds speeds) {
+        DifferentialDriveWheelSpeeds wheelSpeeds = m_kinematics.toWheelSpeeds(speeds);
+        setMotors(wheelSpeeds.leftMetersPerSecond / DriveConstants.kMaxSpeedMetersPerSecond,
+                wheelSpeeds.rightMetersPerSecond / DriveConstants.kMaxSpeedMetersPerSecond);
+    }
+
+    /**
+     * Estimated pose from wheel encoders, in the field frame once the container has placed it.
+     * Allocates, so it is not logged; the pose is logged as the three getters below.
+     *
+     * @return Robot pose
+     */
+    @NotLogged
+    public Pose2d getPose() {
+        return new Pose2d(m_poseXMeters, m_poseYMeters, new Rotation2d(m_headingRadians));
+    }
+
+    /**
+     * X of the odometry pose.
+     *
+     * @return X in meters
+     */
+    @Logged(name = "Pose X (m)")
+    public double getPoseXMeters() {
+        return m_poseXMeters;
+    }
+
+    /**
+     * Y of the odometry pose.
+     *
+     * @return Y in meters
+     */
+    @Logged(name = "Pose Y (m)")
+    public double getPoseYMeters() {
+        return m_poseYMeters;
+    }
+
+    /**
+     * Heading of the odometry pose, counterclockwise positive.
+     *
+     * @return Heading in degrees
+     */
+    @Logged(name = "Heading (deg)")
+    public double getHeadingDegrees() {
+        return Math.toDegrees(m_headingRadians);
+    }
+
+    /**
+     * Straight-line distance from the robot to a point on the field. Does not allocate, so it can
+     * feed per-loop lookups.
+     *
+     * @param xMeters Point X, in the same frame as {@link #getPose()}
+     * @param yMeters Point Y, in the same frame as {@link #getPose()}
+     * @return Distance in meters
+     */
+    public double getDistanceToMeters(double xMeters, double yMeters) {
+        return Math.hypot(xMeters - m_poseXMeters, yMeters - m_poseYMeters);
+    }
+
+    /**
+     * Name of the command currently using this subsystem, for logs.
+     * 
+     * @return Command name, or "none"
+     */
+    @Logged(name = "Active Command", importance = Importance.INFO)
+    public String getActiveCommandName() {
+        Command command = getCurrentCommand();
+        return command == null ? "none" : command.getName();
+    }
+
     /**
      * Gets the average distance traveled by both drive motors in meters.
      * Uses the internal encoders on the TalonFX (Kraken) motors.
+     * If one side's motor is unhealthy, only the healthy side is used.
      * 
      * @return Average distance in meters
      */
+    @Logged(name = "Distance (m)", importance = Importance.INFO)
     public double getEncoderMeters() {
-        // Get position in rotations from TalonFX internal encoders
-        // getPosition() returns SignalValue, getValueAsDouble() returns the numeric value as a double in rotations
-        double leftRotations = m_leftDrive.getPosition().getValueAsDouble();
-        double rightRotations = m_rightDrive.getPosition().getValueAsDouble();
-        
-        // Convert rotations to meters and average
-        double leftMeters = leftRotations * DriveConstants.kTalonFXRotationsToMeters;
-        double rightMeters = rightRotations * DriveConstants.kTalonFXRotationsToMeters;
-        
-        return (leftMeters + rightMeters) / 2.0;
+        // Encoder-only fallback: trust whichever side is still reporting
+        if (m_inputs.leftHealthy != m_inputs.rightHealthy) {
+            return m_inputs.leftHealthy ? getLeftEncoderMeters() : getRightEncoderMeters();
+        }
+
+        return (getLeftEncoderMeters() + getRightEncoderMeters()) / 2.0;
     }
 
     /**
@@ -39,9 +303,9 @@ public class DriveSubsystem extends SubsystemBase {
      * 
      * @return Left distance in meters
      */
+    @Logged(name = "Left Distance (m)")
     public double getLeftEncoderMeters() {
-        double leftRotations = m_leftDrive.getPosition().getValueAsDouble();
-        return leftRotations * DriveConstants.kTalonFXRotationsToMeters;
+        return m_inputs.leftPositionRotations * DriveConstants.kTalonFXRotationsToMeters;
     }
 
     /**
@@ -49,29 +313,57 @@ public class DriveSubsystem extends SubsystemBase {
      * 
      * @return Right distance in meters
      */
+    @Logged(name = "Right Distance (m)")
     public double getRightEncoderMeters() {
-        double rightRotations = m_rightDrive.getPosition().getValueAsDouble();
-        return rightRotations * DriveConstants.kTalonFXRotationsToMeters;
+        return m_inputs.rightPositionRotations * DriveConstants.kTalonFXRotationsToMeters;
+    }
+
+    /**
+     * Whether at least one side's encoder can be trusted for distance.
+     * 
+     * @return True if {@link #getEncoderMeters()} is usable
+     */
+    @Logged(importance = Importance.CRITICAL)
+    public boolean isDistanceHealthy() {
+        return m_inputs.leftHealthy || m_inputs.rightHealthy;
+    }
+
+    /**
+     * Whether both sides' encoders can be trusted. Turning needs both.
+     * 
+     * @return True if both drive motors are healthy
+     */
+    @Logged(importance = Importance.CRITICAL)
+    public boolean isHealthy() {
+        return m_inputs.leftHealthy && m_inputs.rightHealthy;
     }
 
     /**
      * Resets the encoder positions to zero.
      */
     public void resetEncoders() {
-        m_leftDrive.setPosition(0);
-        m_rightDrive.setPosition(0);
+        m_io.resetPosition();
+        // Don't let commands see pre-reset positions before the next periodic() reads the IO
+        m_inputs.leftPositionRotations = 0.0;
+        m_inputs.rightPositionRotations = 0.0;
+        // Odometry keeps integrating from the new zero instead of seeing a jump
+        m_lastLeftMeters = 0.0;
+        m_lastRightMeters = 0.0;
     }
 
-    @Override
-    public void periodic() {
+    /**
+     * Publishes encoder telemetry. Registered at the telemetry rate rather than run from periodic(),
+     * since dashboards don't need 50 Hz updates.
+     */
+    public void publishTelemetry() {
         SmartDashboard.putNumber("Drive encoder value (m)", getEncoderMeters());
-        SmartDashboard.putNumber("Left motor position (rot)", m_leftDrive.getPosition().getValueAsDouble());
-        SmartDashboard.putNumber("Right motor position (rot)", m_rightDrive.getPosition().getValueAsDouble());
+        SmartDashboard.putNumber("Left motor position (rot)", m_inputs.leftPositionRotations);
+        SmartDashboard.putNumber("Right motor position (rot)", m_inputs.rightPositionRotations);
     }
 
     /**
      * Sets the motor speeds for the drivetrain.
-     * Note: Right motor is inverted to match physical wiring/orientation.
+     * Positive is forward for both sides; the IO handles the right motor's inversion.
      *
      * @param leftSpeed Left motor speed (-1.0 to 1.0)
      * @param rightSpeed Right motor speed (-1.0 to 1.0)
@@ -88,9 +380,52 @@ public class DriveSubsystem extends SubsystemBase {
         // Clamp speeds to safe range [-1.0, 1.0] to prevent motor damage
         leftSpeed = MathUtil.clamp(leftSpeed, -1.0, 1.0);
         rightSpeed = MathUtil.clamp(rightSpeed, -1.0, 1.0);
+
+        // A stop in progress (or finished) owns the motors until something asks them to move
+        if (leftSpeed == 0 && rightSpeed == 0 && m_stop.isEngaged()) {
+            return;
+        }
+        m_stop.cancel();
+
+        // Hold each side to the torque its wheels can put down
+        if (DriveConstants.kTractionControlEnabled && isHealthy()) {
+            leftSpeed = m_tractionControl.limitLeft(leftSpeed);
+            rightSpeed = m_tractionControl.limitRight(rightSpeed);
+        }
         
-        m_leftDrive.set(leftSpeed);
-        m_rightDrive.set(-rightSpeed); // Inverted to match physical orientation
+        m_leftOutput = leftSpeed;
+        m_io.setDutyCycle(leftSpeed, rightSpeed);
+    }
+
+    /**
+     * Left duty cycle last sent by {@link #setMotors(double, double)}, after clamping and traction
+     * control.
+     *
+     * @return Duty cycle (-1.0 to 1.0)
+     */
+    @Logged(name = "Left Output", importance = Importance.DEBUG)
+    public double getLeftOutput() {
+        return m_leftOutput;
+    }
+
+    /**
+     * Duty cycle the left motor reports applying, as of {@link #getLeftAppliedMicros()}.
+     *
+     * @return Duty cycle (-1.0 to 1.0)
+     */
+    @Logged(name = "Left Applied", importance = Importance.DEBUG)
+    public double getLeftAppliedDutyCycle() {
+        return m_inputs.leftAppliedDutyCycle;
+    }
+
+    /**
+     * FPGA time the left motor's reported duty cycle was received.
+     *
+     * @return Time in microseconds
+     */
+    @NotLogged
+    public long getLeftAppliedMicros() {
+        return (long) (m_inputs.leftAppliedTimestampSeconds * 1e6);
     }
 
     /**
@@ -120,19 +455,33 @@ public class DriveSubsystem extends SubsystemBase {
     }
 
     /**
-     * Applies brake power to both drive motors to help slow down the robot.
-     * Used when the robot is disabled.
+     * Brings the drive to rest: each side's wheel speed is driven to zero, then the motors go to
+     * brake neutral and no more control frames are sent. Zero requests to
+     * {@link #setMotors(double, double)} (e.g. an idle default command) leave the stop alone; the
+     * first non-zero request takes over. Call from a command's end().
+     */
+    public void stop() {
+        m_stop.start();
+    }
+
+    /**
+     * Puts the motors straight into brake neutral, skipping the active stop. Used on mode changes,
+     * when outputs are cut and there is nothing to control.
+     */
+    public void setNeutral() {
+        m_stop.goNeutral();
+        m_leftOutput = 0.0;
+        m_io.setNeutral();
+    }
+
+    /**
+     * Whether the active stop is driving the wheels to zero.
      *
-     * @param brakePower Brake power to apply (0.0 to 1.0, typically negative for reverse/braking)
+     * @return True until the wheels stop or the stop times out
      */
-    public void brake(double brakePower) {
-        // Validate input
-        if (!Double.isFinite(brakePower)) {
-            brakePower = 0;
-        }
-        
-        m_leftDrive.set(brakePower);
-        m_rightDrive.set(-brakePower); // Inverted to match physical orientation
+    @Logged(name = "Stopping", importance = Importance.DEBUG)
+    public boolean isStopping() {
+        return m_stop.isStopping();
     }
 }
 
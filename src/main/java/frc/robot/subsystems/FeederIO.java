@@ -0,0 +1,53 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import frc.robot.util.LogTable;
+import frc.robot.util.LoggableInputs;
+
+/**
+ * Hardware interface for the feeder.
+ *
+ * <p>Replay uses the no-op defaults: the inputs are restored from the log instead.
+ */
+public interface FeederIO {
+    /** Everything the feeder reads from hardware each cycle. */
+    class FeederIOInputs implements LoggableInputs {
+        public double positionRotations = 0.0;
+        public boolean healthy = true;
+
+        @Override
+        public void toLog(LogTable table) {
+            table.put("PositionRotations", positionRotations);
+            table.put("Healthy", healthy);
+        }
+
+        @Override
+        public void fromLog(LogTable table) {
+            positionRotations = table.get("PositionRotations", positionRotations);
+            healthy = table.get("Healthy", healthy);
+        }
+    }
+
+    /**
+     * Reads the latest sensor values.
+     *
+     * @param inputs Inputs to update
+     */
+    default void updateInputs(FeederIOInputs inputs) {}
+
+    /**
+     * Sets the feeder duty cycle.
+     *
+     * @param output Duty cycle (-1.0 to 1.0)
+     */
+    default void setDutyCycle(double output) {}
+
+    /** Puts the motor in its configured neutral mode. */
+    default void setNeutral() {}
+
+    /** Zeroes the encoder. */
+    default void resetPosition() {}
+}
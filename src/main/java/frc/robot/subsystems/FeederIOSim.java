@@ -0,0 +1,47 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import frc.robot.Constants.SimConstants;
+
+/** Feeder IO backed by a physics model of the feeder roller, for simulation. */
+public class FeederIOSim implements FeederIO {
+    private final DCMotor m_motor = DCMotor.getKrakenX60(1);
+    private final DCMotorSim m_sim = new DCMotorSim(
+            LinearSystemId.createDCMotorSystem(m_motor, SimConstants.kFeederMoiKgM2, 1.0), m_motor);
+    private double m_offsetRotations = 0.0;
+    private double m_dutyCycle = 0.0;
+
+    @Override
+    public void updateInputs(FeederIOInputs inputs) {
+        m_sim.setInputVoltage(m_dutyCycle * RobotController.getBatteryVoltage());
+        m_sim.update(TimedRobot.kDefaultPeriod);
+
+        inputs.positionRotations = Units.radiansToRotations(m_sim.getAngularPositionRad()) - m_offsetRotations;
+        inputs.healthy = true;
+    }
+
+    @Override
+    public void setDutyCycle(double output) {
+        m_dutyCycle = output;
+    }
+
+    @Override
+    public void setNeutral() {
+        // Brake neutral mode: 0 V across the windings is the same short the motor applies
+        m_dutyCycle = 0.0;
+    }
+
+    @Override
+    public void resetPosition() {
+        m_offsetRotations = Units.radiansToRotations(m_sim.getAngularPositionRad());
+    }
+}
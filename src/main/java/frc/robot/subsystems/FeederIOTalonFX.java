@@ -0,0 +1,62 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.MotorOutputConfigs;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.units.measure.Angle;
+import frc.robot.Constants.FeederConstants;
+import frc.robot.util.CanBudget;
+import frc.robot.util.CoalescingMotorOutput;
+import frc.robot.util.DeviceHealth;
+import frc.robot.util.DeviceHealthMonitor;
+
+/** Feeder IO for the TalonFX feeder motor. */
+public class FeederIOTalonFX implements FeederIO {
+    private final TalonFX m_feederMotor = new TalonFX(FeederConstants.kFeederMotorPort);
+    private final StatusSignal<Angle> m_position = m_feederMotor.getPosition();
+    private final CoalescingMotorOutput m_output;
+    private final DeviceHealth m_health;
+
+    public FeederIOTalonFX(CanBudget canBudget, DeviceHealthMonitor healthMonitor) {
+        StatusCode status = m_feederMotor.getConfigurator().apply(
+                new MotorOutputConfigs().withNeutralMode(FeederConstants.kNeutralMode));
+        if (!status.isOK()) {
+            System.err.println("WARNING: Failed to set feeder neutral mode: " + status);
+        }
+
+        m_health = healthMonitor.register("Feeder", m_feederMotor, m_position);
+
+        // Only position is read by control code (FeederRunCommand rotation counting)
+        canBudget.configureDevice("Feeder", m_feederMotor,
+                new BaseStatusSignal[] {m_position}, m_health.getTelemetrySignals());
+        m_output = canBudget.createOutput("Feeder", m_feederMotor);
+    }
+
+    @Override
+    public void updateInputs(FeederIOInputs inputs) {
+        m_position.refresh();
+        inputs.positionRotations = m_position.getValueAsDouble();
+        inputs.healthy = m_health.isHealthy();
+    }
+
+    @Override
+    public void setDutyCycle(double output) {
+        m_output.setDutyCycle(output);
+    }
+
+    @Override
+    public void setNeutral() {
+        m_output.setNeutral();
+    }
+
+    @Override
+    public void resetPosition() {
+        m_feederMotor.setPosition(0);
+    }
+}
@@ -1,30 +1,63 @@
 package frc.robot.subsystems;
 
+import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.epilogue.Logged.Importance;
+import edu.wpi.first.epilogue.NotLogged;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import frc.robot.Constants.FeederConstants;
-import com.ctre.phoenix6.hardware.TalonFX;
+import frc.robot.subsystems.FeederIO.FeederIOInputs;
+import frc.robot.util.InputLog;
 import static edu.wpi.first.wpilibj2.command.Commands.run;
 
 /**
  * Subsystem for the feeder mechanism that feeds balls into the shooter.
  * Controls the motor that moves game pieces from intake to shooter.
  */
+@Logged
 public class FeederSubsystem extends SubsystemBase {
 
-    private final TalonFX m_feederMotor = new TalonFX(FeederConstants.kFeederMotorPort);
+    @NotLogged
+    private final FeederIO m_io;
+    @NotLogged
+    private final FeederIOInputs m_inputs = new FeederIOInputs();
+    @NotLogged
+    private final InputLog m_inputLog;
+
+    /**
+     * Creates the feeder subsystem.
+     *
+     * @param io Hardware, simulation or replay IO
+     * @param inputLog Log that records (or, in replay, supplies) the IO inputs each cycle
+     */
+    public FeederSubsystem(FeederIO io, InputLog inputLog) {
+        m_io = io;
+        m_inputLog = inputLog;
 
-    public FeederSubsystem() {
         // Explicitly stop the motor at initialization to ensure it doesn't run at startup
-        m_feederMotor.set(0);
+        m_io.setNeutral();
         
         // Set default command to keep feeder motor stopped
         setDefaultCommand(
-            run(() -> m_feederMotor.set(0))
+            run(this::stop)
             .withName("Idle"));
     }
 
     @Override
     public void periodic() {
+        m_io.updateInputs(m_inputs);
+        m_inputLog.process("Feeder", m_inputs);
+    }
+
+    /**
+     * Name of the command currently using this subsystem, for logs.
+     * 
+     * @return Command name, or "none"
+     */
+    @Logged(name = "Active Command", importance = Importance.INFO)
+    public String getActiveCommandName() {
+        Command command = getCurrentCommand();
+        return command == null ? "none" : command.getName();
     }
 
     /**
@@ -32,14 +65,27 @@ public class FeederSubsystem extends SubsystemBase {
      * Uses FeederConstants.kFeederPercentOutput for speed.
      */
     public void runAtVelocity() {
-        m_feederMotor.set(FeederConstants.kFeederPercentOutput);
+        m_io.setDutyCycle(FeederConstants.kFeederPercentOutput);
     }
 
     /**
-     * Stops the feeder motor.
+     * Runs the feeder motor at a given percentage output.
+     *
+     * @param percentOutput Duty cycle (-1.0 to 1.0)
+     */
+    public void runAtPercent(double percentOutput) {
+        if (!Double.isFinite(percentOutput)) {
+            percentOutput = 0;
+        }
+        m_io.setDutyCycle(percentOutput);
+    }
+
+    /**
+     * Stops the feeder motor: brake neutral, which holds the balls where they are. Sent once;
+     * repeated calls (e.g. from the idle command) send nothing more.
      */
     public void stop() {
-        m_feederMotor.set(0);
+        m_io.setNeutral();
     }
 
     /**
@@ -47,30 +93,27 @@ public class FeederSubsystem extends SubsystemBase {
      * 
      * @return Current encoder position in rotations
      */
+    @Logged(name = "Position (rot)")
     public double getEncoderRotations() {
-        return m_feederMotor.getPosition().getValueAsDouble();
+        return m_inputs.positionRotations;
     }
 
     /**
-     * Resets the encoder position to zero.
+     * Whether the feeder motor is connected and its encoder is reporting.
+     * 
+     * @return True if {@link #getEncoderRotations()} can be trusted
      */
-    public void resetEncoder() {
-        m_feederMotor.setPosition(0);
+    @Logged(importance = Importance.CRITICAL)
+    public boolean isHealthy() {
+        return m_inputs.healthy;
     }
 
     /**
-     * Applies brake power to the feeder motor to help slow it down.
-     * Used when the robot is disabled.
-     *
-     * @param brakePower Brake power to apply (0.0 to 1.0, typically negative for reverse/braking)
+     * Resets the encoder position to zero.
      */
-    public void brake(double brakePower) {
-        // Validate input
-        if (!Double.isFinite(brakePower)) {
-            brakePower = 0;
-        }
-        
-        m_feederMotor.set(brakePower);
-  }
+    public void resetEncoder() {
+        m_io.resetPosition();
+        // Don't let commands see the pre-reset position before the next periodic() reads the IO
+        m_inputs.positionRotations = 0.0;
+    }
 }
-
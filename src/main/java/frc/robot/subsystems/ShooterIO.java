@@ -0,0 +1,69 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import frc.robot.util.LogTable;
+import frc.robot.util.LoggableInputs;
+
+/**
+ * Hardware interface for the shooter flywheel.
+ *
+ * <p>Replay uses the no-op defaults: the inputs are restored from the log instead.
+ */
+public interface ShooterIO {
+  /** Everything the shooter reads from hardware each cycle. */
+  class ShooterIOInputs implements LoggableInputs {
+    public double velocityRPS = 0.0;
+    public double supplyVolts = 12.0;
+    public boolean healthy = true;
+
+    @Override
+    public void toLog(LogTable table) {
+      table.put("VelocityRPS", velocityRPS);
+      table.put("SupplyVolts", supplyVolts);
+      table.put("Healthy", healthy);
+    }
+
+    @Override
+    public void fromLog(LogTable table) {
+      velocityRPS = table.get("VelocityRPS", velocityRPS);
+      supplyVolts = table.get("SupplyVolts", supplyVolts);
+      healthy = table.get("Healthy", healthy);
+    }
+  }
+
+  /**
+   * Reads the latest sensor values.
+   *
+   * @param inputs Inputs to update
+   */
+  default void updateInputs(ShooterIOInputs inputs) {}
+
+  /**
+   * Sets the flywheel duty cycle (open loop).
+   *
+   * @param output Duty cycle (-1.0 to 1.0)
+   */
+  default void setDutyCycle(double output) {}
+
+  /**
+   * Runs the flywheel closed-loop at a velocity.
+   *
+   * @param velocityRPS Target velocity in rotations per second
+   */
+  default void setVelocity(double velocityRPS) {}
+
+  /** Puts the motor in its configured neutral mode. */
+  default void setNeutral() {}
+
+  /**
+   * Starts or stops high-rate capture of the flywheel's signals. Captured samples go straight to
+   * the log rather than through the inputs. Called from the robot loop, so it must not wait on the
+   * bus.
+   *
+   * @param enabled True to capture
+   */
+  default void setCaptureEnabled(boolean enabled) {}
+}
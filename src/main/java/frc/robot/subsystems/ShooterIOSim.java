@@ -0,0 +1,71 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.system.plant.LinearSystemId;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.Constants.SimConstants;
+
+/**
+ * Shooter IO backed by a flywheel physics model, for simulation. Velocity control uses the same
+ * kS/kV/kP gains the TalonFX runs on the real robot.
+ */
+public class ShooterIOSim implements ShooterIO {
+  private final DCMotor m_motor = DCMotor.getKrakenX60(1);
+  private final FlywheelSim m_sim = new FlywheelSim(
+      LinearSystemId.createFlywheelSystem(m_motor, SimConstants.kShooterMoiKgM2, 1.0), m_motor);
+  private boolean m_closedLoop = false;
+  private boolean m_neutral = false;
+  private double m_setpoint = 0.0;
+
+  @Override
+  public void updateInputs(ShooterIOInputs inputs) {
+    double batteryVolts = RobotController.getBatteryVoltage();
+    double velocityRPS = Units.radiansToRotations(m_sim.getAngularVelocityRadPerSec());
+
+    double volts;
+    if (m_neutral) {
+      // Coast: apply exactly the back-EMF so no current flows, like open windings
+      volts = m_motor.getVoltage(0.0, m_sim.getAngularVelocityRadPerSec());
+    } else if (m_closedLoop) {
+      volts = ShooterConstants.kShooterKS * Math.signum(m_setpoint)
+          + ShooterConstants.kShooterKV * m_setpoint
+          + ShooterConstants.kShooterP * (m_setpoint - velocityRPS);
+    } else {
+      volts = m_setpoint * batteryVolts;
+    }
+    m_sim.setInputVoltage(MathUtil.clamp(volts, -batteryVolts, batteryVolts));
+    m_sim.update(TimedRobot.kDefaultPeriod);
+
+    inputs.velocityRPS = Units.radiansToRotations(m_sim.getAngularVelocityRadPerSec());
+    inputs.supplyVolts = batteryVolts;
+    inputs.healthy = true;
+  }
+
+  @Override
+  public void setDutyCycle(double output) {
+    m_neutral = false;
+    m_closedLoop = false;
+    m_setpoint = output;
+  }
+
+  @Override
+  public void setVelocity(double velocityRPS) {
+    m_neutral = false;
+    m_closedLoop = true;
+    m_setpoint = velocityRPS;
+  }
+
+  @Override
+  public void setNeutral() {
+    m_neutral = true;
+  }
+}
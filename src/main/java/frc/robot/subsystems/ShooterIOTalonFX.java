@@ -0,0 +1,112 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.configs.Slot0Configs;
+import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.units.measure.AngularVelocity;
+import edu.wpi.first.units.measure.Current;
+import edu.wpi.first.units.measure.Voltage;
+import edu.wpi.first.wpilibj.DataLogManager;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.util.CanBudget;
+import frc.robot.util.CoalescingMotorOutput;
+import frc.robot.util.DeviceHealth;
+import frc.robot.util.DeviceHealthMonitor;
+import frc.robot.util.SignalCapture;
+
+/** Shooter IO for the TalonFX flywheel motor, with velocity PID running on the motor controller. */
+public class ShooterIOTalonFX implements ShooterIO {
+  private final TalonFX m_shooterMotor = new TalonFX(ShooterConstants.kShooterMotorPort);
+  private final StatusSignal<AngularVelocity> m_velocity = m_shooterMotor.getVelocity();
+  private final StatusSignal<Voltage> m_supplyVoltage = m_shooterMotor.getSupplyVoltage();
+  private final CoalescingMotorOutput m_output;
+  private final DeviceHealth m_health;
+  private final SignalCapture m_capture;
+
+  public ShooterIOTalonFX(CanBudget canBudget, DeviceHealthMonitor healthMonitor) {
+    // Configure PID and feedforward gains
+    configureShooterMotor();
+
+    m_health = healthMonitor.register("Shooter", m_shooterMotor, m_velocity);
+
+    // Velocity runs closed-loop on the motor controller; we only read it back for readiness checks.
+    // Supply voltage only feeds the sag check, which is debounced, so telemetry rate is enough.
+    BaseStatusSignal[] healthSignals = m_health.getTelemetrySignals();
+    BaseStatusSignal[] telemetrySignals = new BaseStatusSignal[healthSignals.length + 1];
+    telemetrySignals[0] = m_supplyVoltage;
+    System.arraycopy(healthSignals, 0, telemetrySignals, 1, healthSignals.length);
+    canBudget.configureDevice("Shooter", m_shooterMotor,
+        new BaseStatusSignal[] {m_velocity}, telemetrySignals);
+    m_output = canBudget.createOutput("Shooter", m_shooterMotor);
+
+    // Current and applied voltage are off outside captures; the capture raises and restores them
+    StatusSignal<Current> statorCurrent = m_shooterMotor.getStatorCurrent();
+    StatusSignal<Voltage> motorVoltage = m_shooterMotor.getMotorVoltage();
+    m_capture = new SignalCapture("ShooterCapture", DataLogManager.getLog(), ShooterConstants.kCaptureSignalHz,
+        ShooterConstants.kCaptureBufferSamples, m_velocity, statorCurrent, motorVoltage);
+  }
+
+  /**
+   * Configures the shooter motor with PID and feedforward gains.
+   */
+  private void configureShooterMotor() {
+    try {
+      TalonFXConfiguration config = new TalonFXConfiguration();
+      
+      // Configure PID gains in slot 0
+      Slot0Configs slot0 = config.Slot0;
+      slot0.kP = ShooterConstants.kShooterP;
+      slot0.kI = ShooterConstants.kShooterI;
+      slot0.kD = ShooterConstants.kShooterD;
+      slot0.kS = ShooterConstants.kShooterKS; // Static friction
+      slot0.kV = ShooterConstants.kShooterKV; // Velocity feedforward
+
+      // Coast so going neutral lets the flywheel run down on its own
+      config.MotorOutput.NeutralMode = ShooterConstants.kNeutralMode;
+      
+      // Apply configuration
+      m_shooterMotor.getConfigurator().apply(config);
+    } catch (Exception e) {
+      System.err.println("ERROR: Failed to configure shooter motor: " + e.getMessage());
+      e.printStackTrace();
+    }
+  }
+
+  @Override
+  public void updateInputs(ShooterIOInputs inputs) {
+    BaseStatusSignal.refreshAll(m_velocity, m_supplyVoltage);
+    inputs.velocityRPS = m_velocity.getValueAsDouble();
+    inputs.supplyVolts = m_supplyVoltage.getValueAsDouble();
+    inputs.healthy = m_health.isHealthy();
+  }
+
+  @Override
+  public void setDutyCycle(double output) {
+    m_output.setDutyCycle(output);
+  }
+
+  @Override
+  public void setVelocity(double velocityRPS) {
+    m_output.setVelocity(velocityRPS);
+  }
+
+  @Override
+  public void setNeutral() {
+    m_output.setNeutral();
+  }
+
+  @Override
+  public void setCaptureEnabled(boolean enabled) {
+    if (enabled) {
+      m_capture.start();
+    } else {
+      m_capture.stop();
+    }
+  }
+}
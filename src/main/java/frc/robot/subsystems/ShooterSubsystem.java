@@ -5,66 +5,310 @@
 package frc.robot.subsystems;
 
 import edu.wpi.first.epilogue.Logged;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.math.filter.Debouncer.DebounceType;
+import frc.robot.Constants.IndexerConstants;
 import frc.robot.Constants.ShooterConstants;
-import com.ctre.phoenix6.hardware.TalonFX;
-import com.ctre.phoenix6.controls.VelocityVoltage;
-import com.ctre.phoenix6.configs.Slot0Configs;
-import com.ctre.phoenix6.configs.TalonFXConfiguration;
+import frc.robot.subsystems.ShooterIO.ShooterIOInputs;
+import frc.robot.util.InputLog;
+import frc.robot.util.ShotMap;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.epilogue.Logged.Importance;
+import edu.wpi.first.epilogue.NotLogged;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import java.util.function.DoubleSupplier;
 import static edu.wpi.first.wpilibj2.command.Commands.run;
 
 @Logged
 public class ShooterSubsystem extends SubsystemBase {
-  private final TalonFX m_shooterMotor = new TalonFX(ShooterConstants.kShooterMotorPort);
-  private final VelocityVoltage m_velocityControl = new VelocityVoltage(0);
+  @NotLogged
+  private final ShooterIO m_io;
+  @NotLogged
+  private final ShooterIOInputs m_inputs = new ShooterIOInputs();
+  @NotLogged
+  private final InputLog m_inputLog;
+  @NotLogged
+  private final ShotMap m_shotMap;
+  @NotLogged
+  private final DoubleSupplier m_distanceSupplier;
+  @NotLogged
+  private double m_distanceMeters;
+  @NotLogged
+  private double m_targetVelocityRPS = ShooterConstants.kShooterTargetVelocityRPS;
+  @NotLogged
+  private final Debouncer m_sagDebouncer =
+      new Debouncer(ShooterConstants.kSagDebounceSeconds, DebounceType.kBoth);
+  @NotLogged
+  private boolean m_batterySagging = false;
+  @NotLogged
+  private double m_captureEndTime = Double.NEGATIVE_INFINITY;
+  @NotLogged
+  private boolean m_capturing = false;
+  @NotLogged
+  private double m_setpointRPS = 0.0;
+  @NotLogged
+  private boolean m_neutral = true;
 
-  /** The shooter subsystem for the robot. Controls the flywheel and firing mechanism. */
-  public ShooterSubsystem() {
-    // Configure PID and feedforward gains
-    configureShooterMotor();
+  // Recovery model integration step and horizon (seconds)
+  private static final double kModelStepSeconds = 0.001;
+  private static final double kModelHorizonSeconds = 5.0;
+
+  /**
+   * The shooter subsystem for the robot. Controls the flywheel and firing mechanism.
+   *
+   * @param io Hardware, simulation or replay IO
+   * @param inputLog Log that records (or, in replay, supplies) the IO inputs each cycle
+   * @param shotMap Shooting solutions by distance
+   * @param distanceSupplier Current distance to the goal in meters, read once per loop
+   */
+  public ShooterSubsystem(ShooterIO io, InputLog inputLog, ShotMap shotMap, DoubleSupplier distanceSupplier) {
+    m_io = io;
+    m_inputLog = inputLog;
+    m_shotMap = shotMap;
+    m_distanceSupplier = distanceSupplier;
     
-    // Set default command to keep shooter motor idle (off)
+    // Default command holds idle speed, or pre-spins when a shot is coming
     setDefaultCommand(
-        run(() -> m_shooterMotor.set(0))
+        run(this::runIdlePolicy)
             .withName("Idle"));
   }
 
+  @Override
+  public void periodic() {
+    m_io.updateInputs(m_inputs);
+    m_inputLog.process("Shooter", m_inputs);
+
+    // Re-aim every loop so the flywheel tracks the right speed while the robot moves
+    m_distanceMeters = m_distanceSupplier.getAsDouble();
+    m_targetVelocityRPS = m_shotMap.getVelocityRPS(m_distanceMeters);
+    m_batterySagging = m_sagDebouncer.calculate(m_inputs.supplyVolts < ShooterConstants.kSagVoltage);
+
+    if (m_capturing && Timer.getFPGATimestamp() >= m_captureEndTime) {
+      m_io.setCaptureEnabled(false);
+      m_capturing = false;
+    }
+  }
+
+  /**
+   * Captures the flywheel's signals at a high rate for the next
+   * {@link ShooterConstants#kCaptureSeconds}. Call when a feed starts; calling again during a
+   * capture extends it.
+   */
+  public void captureShot() {
+    if (!ShooterConstants.kShotCaptureEnabled) {
+      return;
+    }
+    m_captureEndTime = Timer.getFPGATimestamp() + ShooterConstants.kCaptureSeconds;
+    if (!m_capturing) {
+      m_io.setCaptureEnabled(true);
+      m_capturing = true;
+    }
+  }
+
+  /**
+   * Whether a high-rate shot capture is running.
+   *
+   * @return True during a capture
+   */
+  @Logged(name = "Capturing", importance = Importance.DEBUG)
+  public boolean isCapturing() {
+    return m_capturing;
+  }
+
+  /**
+   * What the flywheel does when nothing is shooting: pre-spin to the shooting velocity inside the
+   * shooting zone, otherwise (or while the battery is sagging) hold a low idle velocity.
+   */
+  private void runIdlePolicy() {
+    if (isPreSpinning()) {
+      requestVelocity(m_targetVelocityRPS);
+    } else if (ShooterConstants.kIdleVelocityRPS > 0.0) {
+      requestVelocity(Math.copySign(ShooterConstants.kIdleVelocityRPS, m_targetVelocityRPS));
+    } else if (m_neutral || m_setpointRPS == 0.0) {
+      // Spun down: coast rather than have the loop hold zero
+      setNeutral();
+    } else {
+      requestVelocity(0.0);
+    }
+  }
+
   /**
-   * Configures the shooter motor with PID and feedforward gains.
-   */
-  private void configureShooterMotor() {
-    try {
-      TalonFXConfiguration config = new TalonFXConfiguration();
-      
-      // Configure PID gains in slot 0
-      Slot0Configs slot0 = config.Slot0;
-      slot0.kP = ShooterConstants.kShooterP;
-      slot0.kI = ShooterConstants.kShooterI;
-      slot0.kD = ShooterConstants.kShooterD;
-      slot0.kS = ShooterConstants.kShooterKS; // Static friction
-      slot0.kV = ShooterConstants.kShooterKV; // Velocity feedforward
-      
-      // Apply configuration
-      m_shooterMotor.getConfigurator().apply(config);
-    } catch (Exception e) {
-      System.err.println("ERROR: Failed to configure shooter motor: " + e.getMessage());
-      e.printStackTrace();
+   * Sends a velocity setpoint. Speeding up goes straight to the new velocity; slowing down ramps
+   * at {@link ShooterConstants#kSpinDownRPSPerSecond}, so the end of a shot is a controlled
+   * spin-down rather than the loop reversing the motor.
+   */
+  private void requestVelocity(double velocityRPS) {
+    if (m_neutral) {
+      // Coming out of coast: start the ramp from wherever the flywheel has run down to
+      m_setpointRPS = m_inputs.velocityRPS;
+      m_neutral = false;
+    }
+    boolean speedingUp = Math.abs(velocityRPS) >= Math.abs(m_setpointRPS) && velocityRPS * m_setpointRPS >= 0;
+    if (speedingUp) {
+      m_setpointRPS = velocityRPS;
+    } else {
+      double step = ShooterConstants.kSpinDownRPSPerSecond * TimedRobot.kDefaultPeriod;
+      m_setpointRPS += MathUtil.clamp(velocityRPS - m_setpointRPS, -step, step);
     }
+    m_io.setVelocity(m_setpointRPS);
+  }
+
+  /**
+   * Velocity setpoint last sent to the motor. Lags the target while spinning down.
+   *
+   * @return Setpoint in rotations per second
+   */
+  @Logged(name = "Setpoint (RPS)", importance = Importance.DEBUG)
+  public double getSetpointRPS() {
+    return m_setpointRPS;
+  }
+
+  /**
+   * Whether the idle policy is spinning the flywheel up ahead of a shot: the robot is within
+   * {@link ShooterConstants#kPreSpinRadiusMeters} of the goal and the battery isn't sagging.
+   *
+   * @return True if pre-spinning (when the idle command is running)
+   */
+  @Logged(name = "Pre-Spin", importance = Importance.INFO)
+  public boolean isPreSpinning() {
+    return m_distanceMeters <= ShooterConstants.kPreSpinRadiusMeters && !m_batterySagging;
+  }
+
+  /**
+   * Whether supply voltage has been below {@link ShooterConstants#kSagVoltage} long enough to drop
+   * pre-spin.
+   *
+   * @return True while the battery is sagging
+   */
+  @Logged(name = "Battery Sag", importance = Importance.INFO)
+  public boolean isBatterySagging() {
+    return m_batterySagging;
+  }
+
+  /**
+   * Name of the command currently using this subsystem, for logs.
+   * 
+   * @return Command name, or "none"
+   */
+  @Logged(name = "Active Command", importance = Importance.INFO)
+  public String getActiveCommandName() {
+    Command command = getCurrentCommand();
+    return command == null ? "none" : command.getName();
   }
 
   /**
    * Runs the shooter at the target velocity using PID control.
-   * Uses the velocity specified in ShooterConstants.kShooterTargetVelocityRPS.
+   * The target comes from the shot map for the current distance to the goal.
    */
   public void runAtTargetVelocity() {
-    m_shooterMotor.setControl(m_velocityControl.withVelocity(ShooterConstants.kShooterTargetVelocityRPS));
+    requestVelocity(m_targetVelocityRPS);
+  }
+
+  /**
+   * Distance to the goal used for the current shooting solution.
+   *
+   * @return Distance in meters
+   */
+  @Logged(name = "Goal Distance (m)", importance = Importance.INFO)
+  public double getDistanceMeters() {
+    return m_distanceMeters;
+  }
+
+  /**
+   * Flywheel velocity for the current distance, from the shot map.
+   *
+   * @return Target velocity in rotations per second
+   */
+  @Logged(name = "Target Velocity (RPS)", importance = Importance.INFO)
+  public double getTargetVelocityRPS() {
+    return m_targetVelocityRPS;
+  }
+
+  /**
+   * Feeder output to fire with at the current distance. Falls back to
+   * {@link IndexerConstants#kFirePercentOutput} when the shot map has no feeder column.
+   *
+   * @return Feeder percent output
+   */
+  @Logged(name = "Feeder Percent", importance = Importance.DEBUG)
+  public double getFeederPercent() {
+    return m_shotMap.getFeederPercent(m_distanceMeters, IndexerConstants.kFirePercentOutput);
+  }
+
+  /**
+   * Gets the current flywheel velocity.
+   *
+   * @return Flywheel velocity in rotations per second
+   */
+  @Logged(name = "Velocity (RPS)", importance = Importance.INFO)
+  public double getVelocityRPS() {
+    return m_inputs.velocityRPS;
   }
 
   /**
-   * Returns a command to run the shooter at the configured target velocity using PID control.
-   * This matches the RPM that 28% power would produce.
+   * Whether the flywheel is within {@link ShooterConstants#kShooterToleranceRPS} of the current
+   * target velocity. This is the readiness signal for feeding a ball.
+   *
+   * @return True if a ball fed now would leave at the intended speed
+   */
+  @Logged(name = "At Speed", importance = Importance.INFO)
+  public boolean isAtSpeed() {
+    return m_inputs.healthy
+        && Math.abs(m_inputs.velocityRPS - m_targetVelocityRPS)
+            <= ShooterConstants.kShooterToleranceRPS;
+  }
+
+  /**
+   * Predicts how long the flywheel takes to get from the given velocity to within tolerance of the
+   * target, under the same kS/kV/kP velocity loop the motor runs.
+   *
+   * <p>The model is the characterized motor, {@code kA * accel = volts - kS - kV * velocity}, with
+   * the loop's output clamped to {@link ShooterConstants#kShooterModelMaxVolts}. It is stepped
+   * numerically so voltage saturation after a large dip is accounted for. Does not allocate.
+   *
+   * @param fromVelocityRPS Starting flywheel velocity in rotations per second
+   * @return Predicted seconds until {@link #isAtSpeed()}, capped at the model horizon
+   */
+  @NotLogged
+  public double predictSecondsToSpeed(double fromVelocityRPS) {
+    double target = m_targetVelocityRPS;
+    double maxVolts = ShooterConstants.kShooterModelMaxVolts;
+    double velocity = fromVelocityRPS;
+    double seconds = 0.0;
+
+    while (Math.abs(target - velocity) > ShooterConstants.kShooterToleranceRPS
+        && seconds < kModelHorizonSeconds) {
+      double volts = ShooterConstants.kShooterKS * Math.signum(target)
+          + ShooterConstants.kShooterKV * target
+          + ShooterConstants.kShooterP * (target - velocity);
+      volts = Math.max(-maxVolts, Math.min(maxVolts, volts));
+      double accel = (volts
+          - ShooterConstants.kShooterKS * Math.signum(velocity)
+          - ShooterConstants.kShooterKV * velocity) / ShooterConstants.kShooterKA;
+      velocity += accel * kModelStepSeconds;
+      seconds += kModelStepSeconds;
+    }
+    return seconds;
+  }
+
+  /**
+   * Whether the shooter motor is connected and reporting velocity.
+   *
+   * @return True if {@link #getVelocityRPS()} can be trusted
    */
+  @Logged(importance = Importance.CRITICAL)
+  public boolean isHealthy() {
+    return m_inputs.healthy;
+  }
+
+  /**
+   * Returns a command to run the shooter at the shot map velocity for the current distance,
+   * using PID control.
+   */
+  @NotLogged
   public Command shootCommand() {
     return run(
             () -> {
@@ -74,18 +318,11 @@ public class ShooterSubsystem extends SubsystemBase {
   }
 
   /**
-   * Applies brake power to the shooter motor to help slow it down.
-   * Used when the robot is disabled.
-   *
-   * @param brakePower Brake power to apply (0.0 to 1.0, typically negative for reverse/braking)
+   * Puts the flywheel in coast neutral and stops sending control frames until the next velocity
+   * request. Used on mode changes, when outputs are cut anyway.
    */
-  public void brake(double brakePower) {
-    // Validate input
-    if (!Double.isFinite(brakePower)) {
-      brakePower = 0;
-    }
-    
-    m_shooterMotor.set(brakePower);
+  public void setNeutral() {
+    m_io.setNeutral();
+    m_neutral = true;
   }
 }
-
@@ -0,0 +1,362 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.tools;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import frc.robot.Constants.ShooterConstants;
+import frc.robot.util.InputLog;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Command-line tool that summarizes robot performance from WPILOG files.
+ *
+ * <p>Each log is read once, front to back, through {@link DataLogReader} (which memory-maps the
+ * file), and logs are processed in parallel. Per log it reports:
+ * <ul>
+ *   <li>loop period percentiles, from the cycle timestamps recorded by {@link InputLog}</li>
+ *   <li>shooter spin-up and shot recovery times, while any shooting command runs on the shooter or
+ *       feeder, against the logged target velocity (or
+ *       {@link ShooterConstants#kShooterTargetVelocityRPS} for logs that predate the shot map), and
+ *       the target each spin-up was measured against</li>
+ *   <li>feeder cycle count</li>
+ *   <li>duration of every drive command run during autonomous</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew analyzeLogs -Plogs=<files or directories> [-Pformat=json]}.
+ */
+public final class LogAnalyzer {
+    private static final double kNominalLoopSeconds = 0.02;
+    private static final String kShooterVelocity = InputLog.kPrefix + "Shooter/VelocityRPS";
+    private static final String kAutonomous = InputLog.kPrefix + "DriverStation/Autonomous";
+    private static final String kEnabled = InputLog.kPrefix + "DriverStation/Enabled";
+    // Epilogue entries are matched by suffix so the configured root doesn't matter
+    private static final String kShooterCommand = "Shooter/Active Command";
+    private static final String kShooterTarget = "Shooter/Target Velocity (RPS)";
+    private static final String kFeederCommand = "Feeder/Active Command";
+    private static final String kDriveCommand = "Drive/Active Command";
+    // Names of every command that fires; Burst Fire only requires the feeder
+    private static final Set<String> kShootingCommands = Set.of("Shoot", "Fire All", "Burst Fire");
+    private static final String kIdle = "Idle";
+    private static final String kNone = "none";
+
+    private LogAnalyzer() {}
+
+    /** Growable primitive array, so long logs don't box every sample. */
+    private static final class DoubleList {
+        private double[] m_values = new double[1024];
+        private int m_size = 0;
+
+        void add(double value) {
+            if (m_size == m_values.length) {
+                m_values = Arrays.copyOf(m_values, m_size * 2);
+            }
+            m_values[m_size++] = value;
+        }
+
+        double[] toSortedArray() {
+            double[] sorted = Arrays.copyOf(m_values, m_size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /** Results for one log file. */
+    static final class Result {
+        String file;
+        String error;
+        int cycles;
+        double loopP50Ms;
+        double loopP90Ms;
+        double loopP99Ms;
+        double loopMaxMs;
+        int loopOverruns;
+        final DoubleList spinUpSeconds = new DoubleList();
+        final DoubleList spinUpTargetRPS = new DoubleList();
+        final DoubleList recoverySeconds = new DoubleList();
+        int feederCycles;
+        final List<String> autoSegmentNames = new ArrayList<>();
+        final DoubleList autoSegmentSeconds = new DoubleList();
+    }
+
+    /**
+     * Analyzes one log.
+     *
+     * @param path Path to the .wpilog file
+     * @return Results; {@code error} is set if the file could not be read
+     */
+    static Result analyze(Path path) {
+        Result result = new Result();
+        result.file = path.toString();
+        DataLogReader reader;
+        try {
+            reader = new DataLogReader(path.toString());
+        } catch (IOException e) {
+            result.error = e.getMessage();
+            return result;
+        }
+        if (!reader.isValid()) {
+            result.error = "not a WPILOG file";
+            return result;
+        }
+
+        Map<Integer, String> names = new HashMap<>();
+        DoubleList loopPeriods = new DoubleList();
+        long lastCycle = -1;
+
+        boolean autonomous = false;
+        boolean enabled = false;
+        boolean shooterShooting = false;
+        boolean feederShooting = false;
+        boolean shooting = false;
+        boolean atSpeed = false;
+        double targetRPS = ShooterConstants.kShooterTargetVelocityRPS;
+        long spinUpStart = -1;
+        long recoveryStart = -1;
+        String feederCommand = kNone;
+        String driveCommand = kNone;
+        long driveCommandStart = -1;
+
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                names.put(record.getStartData().entry, record.getStartData().name);
+                continue;
+            }
+            if (record.isControl()) {
+                continue;
+            }
+            String name = names.get(record.getEntry());
+            if (name == null) {
+                continue;
+            }
+            long timestamp = record.getTimestamp();
+
+            if (name.equals(InputLog.kTimestampEntry)) {
+                if (lastCycle >= 0) {
+                    loopPeriods.add((timestamp - lastCycle) / 1e6);
+                }
+                lastCycle = timestamp;
+                result.cycles++;
+            } else if (name.equals(kAutonomous)) {
+                autonomous = record.getBoolean();
+            } else if (name.equals(kEnabled)) {
+                enabled = record.getBoolean();
+            } else if (name.endsWith(kShooterCommand)) {
+                shooterShooting = kShootingCommands.contains(record.getString());
+                if (shooterShooting && !shooting) {
+                    spinUpStart = timestamp;
+                    recoveryStart = -1;
+                    atSpeed = false;
+                }
+                shooting = shooterShooting || feederShooting;
+            } else if (name.endsWith(kShooterTarget)) {
+                targetRPS = record.getDouble();
+            } else if (name.equals(kShooterVelocity) && shooting) {
+                boolean inTolerance = Math.abs(record.getDouble() - targetRPS)
+                        <= ShooterConstants.kShooterToleranceRPS;
+                if (inTolerance && !atSpeed) {
+                    if (spinUpStart >= 0) {
+                        result.spinUpSeconds.add((timestamp - spinUpStart) / 1e6);
+                        result.spinUpTargetRPS.add(targetRPS);
+                        spinUpStart = -1;
+                    } else if (recoveryStart >= 0) {
+                        result.recoverySeconds.add((timestamp - recoveryStart) / 1e6);
+                        recoveryStart = -1;
+                    }
+                } else if (!inTolerance && atSpeed) {
+                    // Dropped out of tolerance after reaching speed: a shot went through
+                    recoveryStart = timestamp;
+                }
+                atSpeed = inTolerance;
+            } else if (name.endsWith(kFeederCommand)) {
+                String command = record.getString();
+                if (isIdle(feederCommand) && !isIdle(command)) {
+                    result.feederCycles++;
+                }
+                feederCommand = command;
+                feederShooting = kShootingCommands.contains(command);
+                if (feederShooting && !shooting) {
+                    spinUpStart = timestamp;
+                    recoveryStart = -1;
+                    atSpeed = false;
+                }
+                shooting = shooterShooting || feederShooting;
+            } else if (name.endsWith(kDriveCommand)) {
+                String command = record.getString();
+                if (!command.equals(driveCommand)) {
+                    if (driveCommandStart >= 0 && !isIdle(driveCommand)) {
+                        result.autoSegmentNames.add(driveCommand);
+                        result.autoSegmentSeconds.add((timestamp - driveCommandStart) / 1e6);
+                    }
+                    driveCommand = command;
+                    driveCommandStart = autonomous && enabled ? timestamp : -1;
+                }
+            }
+        }
+
+        double[] periods = loopPeriods.toSortedArray();
+        if (periods.length > 0) {
+            result.loopP50Ms = percentile(periods, 0.50) * 1000.0;
+            result.loopP90Ms = percentile(periods, 0.90) * 1000.0;
+            result.loopP99Ms = percentile(periods, 0.99) * 1000.0;
+            result.loopMaxMs = periods[periods.length - 1] * 1000.0;
+            for (double period : periods) {
+                if (period > kNominalLoopSeconds * 1.5) {
+                    result.loopOverruns++;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean isIdle(String command) {
+        return command.equals(kIdle) || command.equals(kNone);
+    }
+
+    private static double percentile(double[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    private static double mean(DoubleList values) {
+        if (values.m_size == 0) {
+            return Double.NaN;
+        }
+        double sum = 0;
+        for (int i = 0; i < values.m_size; i++) {
+            sum += values.m_values[i];
+        }
+        return sum / values.m_size;
+    }
+
+    private static double max(DoubleList values) {
+        double max = Double.NaN;
+        for (int i = 0; i < values.m_size; i++) {
+            max = Double.isNaN(max) ? values.m_values[i] : Math.max(max, values.m_values[i]);
+        }
+        return max;
+    }
+
+    private static void writeCsv(List<Result> results, PrintStream out) {
+        out.println("file,cycles,loop_p50_ms,loop_p90_ms,loop_p99_ms,loop_max_ms,loop_overruns,"
+                + "spinups,spinup_mean_s,spinup_max_s,spinup_target_mean_rps,recoveries,recovery_mean_s,recovery_max_s,"
+                + "feeder_cycles,auto_segments,error");
+        for (Result r : results) {
+            StringBuilder segments = new StringBuilder();
+            for (int i = 0; i < r.autoSegmentNames.size(); i++) {
+                if (i > 0) {
+                    segments.append(';');
+                }
+                segments.append(r.autoSegmentNames.get(i)).append('=')
+                        .append(String.format(Locale.ROOT, "%.3f", r.autoSegmentSeconds.m_values[i]));
+            }
+            out.println(String.format(Locale.ROOT,
+                    "\"%s\",%d,%.3f,%.3f,%.3f,%.3f,%d,%d,%.3f,%.3f,%.3f,%d,%.3f,%.3f,%d,\"%s\",\"%s\"",
+                    r.file, r.cycles, r.loopP50Ms, r.loopP90Ms, r.loopP99Ms, r.loopMaxMs, r.loopOverruns,
+                    r.spinUpSeconds.m_size, mean(r.spinUpSeconds), max(r.spinUpSeconds),
+                    mean(r.spinUpTargetRPS),
+                    r.recoverySeconds.m_size, mean(r.recoverySeconds), max(r.recoverySeconds),
+                    r.feederCycles, segments, r.error == null ? "" : r.error));
+        }
+    }
+
+    private static String jsonNumber(double value) {
+        return Double.isFinite(value) ? String.format(Locale.ROOT, "%.4f", value) : "null";
+    }
+
+    private static String jsonString(String value) {
+        return value == null ? "null" : "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static String jsonArray(DoubleList values) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < values.m_size; i++) {
+            json.append(i > 0 ? "," : "").append(jsonNumber(values.m_values[i]));
+        }
+        return json.append(']').toString();
+    }
+
+    private static void writeJson(List<Result> results, PrintStream out) {
+        out.println("[");
+        for (int i = 0; i < results.size(); i++) {
+            Result r = results.get(i);
+            StringBuilder segments = new StringBuilder("[");
+            for (int j = 0; j < r.autoSegmentNames.size(); j++) {
+                segments.append(j > 0 ? "," : "")
+                        .append("{\"command\":").append(jsonString(r.autoSegmentNames.get(j)))
+                        .append(",\"seconds\":").append(jsonNumber(r.autoSegmentSeconds.m_values[j])).append('}');
+            }
+            segments.append(']');
+            out.println("  {\"file\":" + jsonString(r.file)
+                    + ",\"error\":" + jsonString(r.error)
+                    + ",\"cycles\":" + r.cycles
+                    + ",\"loop\":{\"p50_ms\":" + jsonNumber(r.loopP50Ms) + ",\"p90_ms\":" + jsonNumber(r.loopP90Ms)
+                    + ",\"p99_ms\":" + jsonNumber(r.loopP99Ms) + ",\"max_ms\":" + jsonNumber(r.loopMaxMs)
+                    + ",\"overruns\":" + r.loopOverruns + "}"
+                    + ",\"shooter\":{\"spinup_s\":" + jsonArray(r.spinUpSeconds)
+                    + ",\"spinup_target_rps\":" + jsonArray(r.spinUpTargetRPS)
+                    + ",\"recovery_s\":" + jsonArray(r.recoverySeconds) + "}"
+                    + ",\"feeder_cycles\":" + r.feederCycles
+                    + ",\"auto_segments\":" + segments
+                    + "}" + (i < results.size() - 1 ? "," : ""));
+        }
+        out.println("]");
+    }
+
+    private static Stream<Path> expand(String arg) {
+        Path path = Paths.get(arg);
+        if (!Files.isDirectory(path)) {
+            return Stream.of(path);
+        }
+        try (Stream<Path> walk = Files.walk(path)) {
+            return walk.filter(p -> p.toString().endsWith(".wpilog")).sorted().collect(Collectors.toList()).stream();
+        } catch (IOException e) {
+            System.err.println("ERROR: Failed to list " + path + ": " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args {@code [--json] <log or directory>...}
+     */
+    public static void main(String... args) {
+        boolean json = false;
+        List<Path> logs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--json")) {
+                json = true;
+            } else if (!arg.isEmpty()) {
+                expand(arg).forEach(logs::add);
+            }
+        }
+        if (logs.isEmpty()) {
+            System.err.println("Usage: LogAnalyzer [--json] <log.wpilog or directory>...");
+            System.exit(1);
+        }
+
+        // Logs are independent, so analyze them in parallel; collect() keeps the input order
+        List<Result> results = logs.parallelStream().map(LogAnalyzer::analyze).collect(Collectors.toList());
+        if (json) {
+            writeJson(results, System.out);
+        } else {
+            writeCsv(results, System.out);
+        }
+    }
+}
@@ -0,0 +1,442 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.pathplanner.lib.config.RobotConfig;
+import com.pathplanner.lib.controllers.PPLTVController;
+import com.pathplanner.lib.path.ConstraintsZone;
+import com.pathplanner.lib.path.PathConstraints;
+import com.pathplanner.lib.path.PathPlannerPath;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectory;
+import com.pathplanner.lib.trajectory.PathPlannerTrajectoryState;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.kinematics.DifferentialDriveWheelSpeeds;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DifferentialDrivetrainSim;
+import frc.robot.Constants.AutoConstants;
+import frc.robot.Constants.DriveConstants;
+import frc.robot.RobotContainer;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Command-line tool that tunes each PathPlanner path's velocity and acceleration limits against a
+ * simulation of this drivetrain.
+ *
+ * <p>Every deployed path starts out with the GUI's default constraints, which were never matched to
+ * the robot. For each path this tool generates the trajectory the robot would (same
+ * {@link RobotContainer#createRobotConfig()}), follows it with the same LTV controller and open-loop
+ * duty cycles as {@code DriveSubsystem.driveRobotRelative()} on a {@link DifferentialDrivetrainSim},
+ * and records the time, the worst tracking error and the worst motor current. It then searches:
+ * <ol>
+ *   <li>global max velocity and acceleration, on a coarse grid refined by a pattern search</li>
+ *   <li>a constraint zone per part of each waypoint segment ({@link #kZonesPerSegment} parts), raising
+ *       or lowering the limits there, kept only if it saves at least {@link #kMinZoneGainSeconds}</li>
+ * </ol>
+ * minimizing path time while tracking error stays under {@link #kMaxTrackingErrorMeters} and current
+ * under {@link AutoConstants#kDriveCurrentLimitAmps}. Paths are optimized in parallel. Each auto is
+ * reported as the sum of its paths' times.
+ *
+ * <p>Run with {@code ./gradlew optimizePaths [-Pwrite]}. With {@code --write} the optimized limits
+ * are saved back into the .path files (zones it adds are named "Optimized N" and replaced on the
+ * next run); review them in the PathPlanner GUI before deploying.
+ */
+public final class PathConstraintOptimizer {
+    private static final double kDt = TimedRobot.kDefaultPeriod;
+    private static final double kMaxTrackingErrorMeters = 0.10;
+    private static final double kMinVelocity = 0.5;
+    // The drive's free speed through its reduction; no limit above it can be reached
+    private static final double kMaxVelocity = DriveConstants.kMaxSpeedMetersPerSecond;
+    private static final double kMinAcceleration = 0.5;
+    // Above the grip limit the wheels slip, whatever the motors can do
+    private static final double kMaxAcceleration = AutoConstants.kWheelCof * 9.81;
+    private static final int kGridSteps = 8;
+    private static final double kSearchResolution = 0.05;
+    private static final int kZonesPerSegment = 2;
+    private static final double kMinZoneGainSeconds = 0.02;
+    private static final String kZonePrefix = "Optimized ";
+    private static final String kPathExtension = ".path";
+    private static final String kAutoExtension = ".auto";
+
+    private PathConstraintOptimizer() {}
+
+    /** Outcome of following one path with one set of limits. */
+    static final class Evaluation {
+        double seconds = Double.POSITIVE_INFINITY;
+        double maxErrorMeters = Double.NaN;
+        double maxCurrentAmps = Double.NaN;
+
+        boolean isFeasible() {
+            return maxErrorMeters <= kMaxTrackingErrorMeters && maxCurrentAmps <= AutoConstants.kDriveCurrentLimitAmps;
+        }
+
+        /** Infeasible limits cost infinite time, so the search never settles on them. */
+        double cost() {
+            return isFeasible() ? seconds : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    /** Results for one path. */
+    static final class Result {
+        String path;
+        String error;
+        Evaluation baseline;
+        Evaluation optimized;
+        double maxVelocity;
+        double maxAcceleration;
+        final List<ConstraintsZone> zones = new ArrayList<>();
+    }
+
+    /** Simulates a path with the robot's drive model and controller. */
+    private static final class Simulator {
+        private final RobotConfig m_config = RobotContainer.createRobotConfig();
+        private final PPLTVController m_controller = new PPLTVController(kDt);
+        private final DifferentialDriveKinematics m_kinematics =
+                new DifferentialDriveKinematics(DriveConstants.kTrackWidthMeters);
+
+        Evaluation evaluate(PathPlannerPath path) {
+            Evaluation evaluation = new Evaluation();
+            PathPlannerTrajectory trajectory;
+            try {
+                Pose2d start = path.getStartingDifferentialPose();
+                trajectory = path.generateTrajectory(new ChassisSpeeds(), start.getRotation(), m_config);
+            } catch (RuntimeException e) {
+                // Limits the generator can't satisfy are simply infeasible
+                return evaluation;
+            }
+
+            DifferentialDrivetrainSim drive = new DifferentialDrivetrainSim(
+                    DCMotor.getKrakenX60(1),
+                    DriveConstants.kGearRatio,
+                    AutoConstants.kRobotMoiKgM2,
+                    AutoConstants.kRobotMassKg,
+                    DriveConstants.kWheelDiameterMeters / 2.0,
+                    DriveConstants.kTrackWidthMeters,
+                    null);
+            drive.setPose(trajectory.getInitialState().pose);
+            m_controller.reset(drive.getPose(), new ChassisSpeeds());
+
+            double maxError = 0.0;
+            double maxCurrent = 0.0;
+            double totalSeconds = trajectory.getTotalTimeSeconds();
+            for (double t = 0.0; t <= totalSeconds + kDt / 2; t += kDt) {
+                PathPlannerTrajectoryState target = trajectory.sample(t);
+                ChassisSpeeds speeds = m_controller.calculateRobotRelativeSpeeds(drive.getPose(), target);
+                // Same open-loop conversion as DriveSubsystem.driveRobotRelative()
+                DifferentialDriveWheelSpeeds wheelSpeeds = m_kinematics.toWheelSpeeds(speeds);
+                double left = Math.max(-1.0, Math.min(1.0,
+                        wheelSpeeds.leftMetersPerSecond / DriveConstants.kMaxSpeedMetersPerSecond));
+                double right = Math.max(-1.0, Math.min(1.0,
+                        wheelSpeeds.rightMetersPerSecond / DriveConstants.kMaxSpeedMetersPerSecond));
+                drive.setInputs(left * 12.0, right * 12.0);
+                drive.update(kDt);
+
+                maxError = Math.max(maxError,
+                        drive.getPose().getTranslation().getDistance(target.pose.getTranslation()));
+                maxCurrent = Math.max(maxCurrent,
+                        Math.max(Math.abs(drive.getLeftCurrentDrawAmps()), Math.abs(drive.getRightCurrentDrawAmps())));
+            }
+
+            evaluation.seconds = totalSeconds;
+            evaluation.maxErrorMeters = maxError;
+            evaluation.maxCurrentAmps = maxCurrent;
+            return evaluation;
+        }
+    }
+
+    private static PathConstraints withLimits(PathConstraints base, double velocity, double acceleration) {
+        return new PathConstraints(velocity, acceleration, base.maxAngularVelocityRadPerSec(),
+                base.maxAngularAccelerationRadPerSecSq(), base.nominalVoltageVolts(), false);
+    }
+
+    private static PathPlannerPath withConstraints(PathPlannerPath path, PathConstraints global,
+            List<ConstraintsZone> zones) {
+        return new PathPlannerPath(path.getWaypoints(), path.getRotationTargets(), path.getPointTowardsZones(),
+                zones, path.getEventMarkers(), global, path.getIdealStartingState(), path.getGoalEndState(),
+                path.isReversed());
+    }
+
+    /**
+     * Pattern search over (velocity, acceleration): a coarse grid, then steps around the best point
+     * that halve whenever no neighbour improves.
+     *
+     * @param cost Cost of a (velocity, acceleration) pair
+     * @return Best {velocity, acceleration} found, or null if nothing was feasible
+     */
+    private static double[] search(Function<double[], Double> cost) {
+        double velocityStep = (kMaxVelocity - kMinVelocity) / kGridSteps;
+        double accelerationStep = (kMaxAcceleration - kMinAcceleration) / kGridSteps;
+
+        double[] best = null;
+        double bestCost = Double.POSITIVE_INFINITY;
+        for (int i = 0; i <= kGridSteps; i++) {
+            for (int j = 0; j <= kGridSteps; j++) {
+                double[] point = {kMinVelocity + i * velocityStep, kMinAcceleration + j * accelerationStep};
+                double pointCost = cost.apply(point);
+                if (pointCost < bestCost) {
+                    best = point;
+                    bestCost = pointCost;
+                }
+            }
+        }
+        if (best == null) {
+            return null;
+        }
+
+        while (velocityStep > kSearchResolution || accelerationStep > kSearchResolution) {
+            boolean improved = false;
+            double[][] neighbours = {
+                {best[0] + velocityStep, best[1]}, {best[0] - velocityStep, best[1]},
+                {best[0], best[1] + accelerationStep}, {best[0], best[1] - accelerationStep},
+            };
+            for (double[] point : neighbours) {
+                if (point[0] < kMinVelocity || point[0] > kMaxVelocity
+                        || point[1] < kMinAcceleration || point[1] > kMaxAcceleration) {
+                    continue;
+                }
+                double pointCost = cost.apply(point);
+                if (pointCost < bestCost) {
+                    best = point;
+                    bestCost = pointCost;
+                    improved = true;
+                }
+            }
+            if (!improved) {
+                velocityStep /= 2;
+                accelerationStep /= 2;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Optimizes one path.
+     *
+     * @param name Path name, as in the .path file name
+     * @return Results; {@code error} is set if the path could not be loaded or followed
+     */
+    static Result optimize(String name) {
+        Result result = new Result();
+        result.path = name;
+        PathPlannerPath path;
+        try {
+            path = PathPlannerPath.fromPathFile(name);
+        } catch (Exception e) {
+            result.error = e.getMessage();
+            return result;
+        }
+
+        Simulator simulator = new Simulator();
+        PathConstraints base = path.getGlobalConstraints();
+        List<ConstraintsZone> existingZones = new ArrayList<>();
+        for (ConstraintsZone zone : path.getConstraintZones()) {
+            existingZones.add(zone);
+        }
+        result.baseline = simulator.evaluate(path);
+
+        double[] global = search(point -> simulator.evaluate(
+                withConstraints(path, withLimits(base, point[0], point[1]), existingZones)).cost());
+        if (global == null) {
+            result.error = "no feasible limits";
+            return result;
+        }
+        result.maxVelocity = global[0];
+        result.maxAcceleration = global[1];
+        PathConstraints globalConstraints = withLimits(base, global[0], global[1]);
+
+        // One zone at a time, each searched with the zones already accepted in place
+        List<ConstraintsZone> zones = new ArrayList<>(existingZones);
+        double bestSeconds = simulator.evaluate(withConstraints(path, globalConstraints, zones)).cost();
+        int parts = (path.getWaypoints().size() - 1) * kZonesPerSegment;
+        for (int part = 0; part < parts; part++) {
+            double min = (double) part / kZonesPerSegment;
+            double max = (double) (part + 1) / kZonesPerSegment;
+            double[] limits = search(point -> {
+                List<ConstraintsZone> trial = new ArrayList<>(zones);
+                trial.add(new ConstraintsZone(min, max, withLimits(base, point[0], point[1])));
+                return simulator.evaluate(withConstraints(path, globalConstraints, trial)).cost();
+            });
+            if (limits == null) {
+                continue;
+            }
+            ConstraintsZone zone = new ConstraintsZone(min, max, withLimits(base, limits[0], limits[1]));
+            zones.add(zone);
+            double seconds = simulator.evaluate(withConstraints(path, globalConstraints, zones)).cost();
+            if (seconds <= bestSeconds - kMinZoneGainSeconds) {
+                bestSeconds = seconds;
+                result.zones.add(zone);
+            } else {
+                zones.remove(zones.size() - 1);
+            }
+        }
+
+        result.optimized = simulator.evaluate(withConstraints(path, globalConstraints, zones));
+        return result;
+    }
+
+    /**
+     * Saves a result's limits into its .path file.
+     *
+     * @param mapper JSON mapper
+     * @param file The .path file
+     * @param result Optimization result for it
+     * @throws IOException If the file can't be read or written
+     */
+    private static void write(ObjectMapper mapper, File file, Result result) throws IOException {
+        ObjectNode root = (ObjectNode) mapper.readTree(file);
+        ObjectNode constraints = (ObjectNode) root.get("globalConstraints");
+        constraints.put("maxVelocity", round(result.maxVelocity));
+        constraints.put("maxAcceleration", round(result.maxAcceleration));
+        // Otherwise the GUI resets the limits to its defaults
+        root.put("useDefaultConstraints", false);
+
+        ArrayNode zones = mapper.createArrayNode();
+        for (JsonNode zone : root.path("constraintZones")) {
+            if (!zone.path("name").asText().startsWith(kZonePrefix)) {
+                zones.add(zone);
+            }
+        }
+        for (int i = 0; i < result.zones.size(); i++) {
+            ConstraintsZone zone = result.zones.get(i);
+            ObjectNode node = zones.addObject();
+            node.put("name", kZonePrefix + (i + 1));
+            node.put("minWaypointRelativePos", zone.minPosition());
+            node.put("maxWaypointRelativePos", zone.maxPosition());
+            ObjectNode zoneConstraints = constraints.deepCopy();
+            zoneConstraints.put("maxVelocity", round(zone.constraints().maxVelocityMPS()));
+            zoneConstraints.put("maxAcceleration", round(zone.constraints().maxAccelerationMPSSq()));
+            node.set("constraints", zoneConstraints);
+        }
+        root.set("constraintZones", zones);
+
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+
+    /** Collects the path names an auto runs, in order, including those nested in groups. */
+    private static void collectPaths(JsonNode node, List<String> paths) {
+        if ("path".equals(node.path("type").asText())) {
+            String name = node.path("data").path("pathName").asText(null);
+            if (name != null) {
+                paths.add(name);
+            }
+        }
+        for (JsonNode child : node) {
+            collectPaths(child, paths);
+        }
+    }
+
+    private static File[] listFiles(File directory, String extension) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(extension));
+        if (files == null) {
+            System.err.println("ERROR: Directory " + directory + " not found");
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private static String stripExtension(File file, String extension) {
+        return file.getName().substring(0, file.getName().length() - extension.length());
+    }
+
+    private static void writeCsv(List<Result> results, Map<String, List<String>> autos, PrintStream out) {
+        out.println("path,baseline_s,optimized_s,max_velocity,max_acceleration,zones,max_error_m,max_current_a,error");
+        Map<String, Result> byPath = results.stream().collect(Collectors.toMap(r -> r.path, r -> r));
+        for (Result r : results) {
+            boolean ok = r.error == null;
+            out.println(String.format(Locale.ROOT, "\"%s\",%.3f,%.3f,%.2f,%.2f,%d,%.3f,%.1f,\"%s\"",
+                    r.path,
+                    r.baseline == null ? Double.NaN : r.baseline.seconds,
+                    ok ? r.optimized.seconds : Double.NaN,
+                    ok ? r.maxVelocity : Double.NaN,
+                    ok ? r.maxAcceleration : Double.NaN,
+                    r.zones.size(),
+                    ok ? r.optimized.maxErrorMeters : Double.NaN,
+                    ok ? r.optimized.maxCurrentAmps : Double.NaN,
+                    ok ? "" : r.error));
+        }
+
+        out.println();
+        out.println("auto,baseline_path_s,optimized_path_s");
+        autos.forEach((auto, paths) -> {
+            double baseline = 0.0;
+            double optimized = 0.0;
+            for (String path : paths) {
+                Result r = byPath.get(path);
+                baseline += r == null || r.baseline == null ? Double.NaN : r.baseline.seconds;
+                optimized += r == null || r.error != null ? Double.NaN : r.optimized.seconds;
+            }
+            out.println(String.format(Locale.ROOT, "\"%s\",%.3f,%.3f", auto, baseline, optimized));
+        });
+    }
+
+    /**
+     * Entry point.
+     *
+     * @param args {@code [--write]}
+     */
+    public static void main(String... args) {
+        boolean write = Arrays.asList(args).contains("--write");
+        File pathplanner = new File(Filesystem.getDeployDirectory(), "pathplanner");
+        File pathsDirectory = new File(pathplanner, "paths");
+        ObjectMapper mapper = new ObjectMapper();
+
+        List<String> names = new ArrayList<>();
+        for (File file : listFiles(pathsDirectory, kPathExtension)) {
+            names.add(stripExtension(file, kPathExtension));
+        }
+        Map<String, List<String>> autos = new LinkedHashMap<>();
+        for (File file : listFiles(new File(pathplanner, "autos"), kAutoExtension)) {
+            List<String> paths = new ArrayList<>();
+            try {
+                collectPaths(mapper.readTree(file), paths);
+            } catch (IOException e) {
+                System.err.println("WARNING: Could not read " + file + ": " + e.getMessage());
+            }
+            autos.put(stripExtension(file, kAutoExtension), paths);
+        }
+
+        // Paths are independent, so optimize them in parallel; collect() keeps the input order
+        List<Result> results = names.parallelStream()
+                .map(PathConstraintOptimizer::optimize)
+                .collect(Collectors.toList());
+        writeCsv(results, autos, System.out);
+
+        if (write) {
+            for (Result result : results) {
+                if (result.error != null) {
+                    continue;
+                }
+                File file = new File(pathsDirectory, result.path + kPathExtension);
+                try {
+                    write(mapper, file, result);
+                } catch (IOException | ClassCastException e) {
+                    System.err.println("ERROR: Could not write " + file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pathplanner.lib.auto.NamedCommands;
+import com.pathplanner.lib.commands.PathPlannerAuto;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import edu.wpi.first.wpilibj2.command.Command;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Every PathPlanner auto in the deploy directory, built once at startup.
+ *
+ * <p>Building an auto loads its paths and resolves its named commands, which is too slow to do in
+ * autonomousInit(). Doing it here also validates them: every named command referenced by an auto
+ * (or by an event marker in a path) is checked against {@link NamedCommands}, and anything missing
+ * is reported and raised as an alert. PathPlanner would otherwise silently substitute a command
+ * that does nothing.
+ *
+ * <p>Register named commands and configure AutoBuilder before creating this.
+ */
+public class AutoLibrary {
+    private static final String kAutoExtension = ".auto";
+    private static final String kPathExtension = ".path";
+
+    private final Map<String, Command> m_autos = new LinkedHashMap<>();
+    private final Set<String> m_missingNames = new TreeSet<>();
+    private final Alert m_missingAlert = new Alert("", AlertType.kWarning);
+    private final Alert m_failedAlert = new Alert("", AlertType.kError);
+
+    /**
+     * Builds every auto in the given directory.
+     *
+     * @param autosDirectory PathPlanner autos directory; paths are expected in the sibling "paths"
+     */
+    public AutoLibrary(File autosDirectory) {
+        ObjectMapper mapper = new ObjectMapper();
+        Set<String> failed = new TreeSet<>();
+
+        for (File file : listFiles(new File(autosDirectory.getParentFile(), "paths"), kPathExtension)) {
+            scanFile(mapper, file);
+        }
+
+        for (File file : listFiles(autosDirectory, kAutoExtension)) {
+            String name = file.getName().substring(0, file.getName().length() - kAutoExtension.length());
+            scanFile(mapper, file);
+            try {
+                m_autos.put(name, new PathPlannerAuto(name));
+            } catch (RuntimeException e) {
+                System.err.println("ERROR: Could not build auto " + name + ": " + e.getMessage());
+                failed.add(name);
+            }
+        }
+
+        if (!m_missingNames.isEmpty()) {
+            System.err.println("WARNING: Named commands used by autos but not registered: " + m_missingNames);
+            m_missingAlert.setText("Unregistered auto commands: " + String.join(", ", m_missingNames));
+            m_missingAlert.set(true);
+        }
+        if (!failed.isEmpty()) {
+            m_failedAlert.setText("Autos failed to build: " + String.join(", ", failed));
+            m_failedAlert.set(true);
+        }
+        System.out.println("Built " + m_autos.size() + " autos: " + m_autos.keySet());
+    }
+
+    private static File[] listFiles(File directory, String extension) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(extension));
+        if (files == null) {
+            System.err.println("WARNING: Auto directory " + directory + " not found");
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    private void scanFile(ObjectMapper mapper, File file) {
+        try {
+            collectMissingNames(mapper.readTree(file));
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not read " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Walks the whole JSON tree, so named commands nested in groups and event markers are found. */
+    private void collectMissingNames(JsonNode node) {
+        if ("named".equals(node.path("type").asText())) {
+            String name = node.path("data").path("name").asText(null);
+            if (name != null && !NamedCommands.hasCommand(name)) {
+                m_missingNames.add(name);
+            }
+        }
+        for (JsonNode child : node) {
+            collectMissingNames(child);
+        }
+    }
+
+    /**
+     * Built autos by file name, in alphabetical order.
+     *
+     * @return Unmodifiable map of auto name to command
+     */
+    public Map<String, Command> getAutos() {
+        return Collections.unmodifiableMap(m_autos);
+    }
+
+    /**
+     * Named commands referenced by autos or paths that nothing registered.
+     *
+     * @return Unmodifiable set of names
+     */
+    public Set<String> getMissingNames() {
+        return Collections.unmodifiableSet(m_missingNames);
+    }
+}
@@ -0,0 +1,92 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Timestamps the phases of robot code startup, from JVM launch to the first loop.
+ *
+ * <p>Call {@link #mark(String)} at the end of each phase; the phase's time is measured from the
+ * previous mark. The first mark is measured from JVM launch, so it covers JVM startup and loading
+ * the jar. {@link #finish(DataLog)} prints the table and logs each phase under "Boot/", so
+ * startup after a field reboot can be compared across deploys.
+ *
+ * <p>Also drives the class-data-sharing training run started by {@code ./gradlew deploy -Pcds}: when
+ * {@link #isTrainingRun()}, the robot boots, runs for a few seconds so loop code is loaded, and exits
+ * so the JVM can write the list of loaded classes.
+ */
+public final class BootProfiler {
+    private static final String kTrainingProperty = "frc.cds.training";
+
+    private static final List<String> s_phases = new ArrayList<>();
+    private static final List<Double> s_millis = new ArrayList<>();
+    private static long s_lastNanos;
+    private static boolean s_finished = false;
+
+    private BootProfiler() {}
+
+    /**
+     * Ends the current startup phase. Has no effect after {@link #finish(DataLog)}.
+     *
+     * @param phase Name of the phase that just completed
+     */
+    public static synchronized void mark(String phase) {
+        if (s_finished) {
+            return;
+        }
+        s_phases.add(phase);
+        if (s_phases.size() == 1) {
+            // JVM startup and jar loading, up to the first mark
+            s_millis.add((double) ManagementFactory.getRuntimeMXBean().getUptime());
+        } else {
+            s_millis.add((System.nanoTime() - s_lastNanos) / 1e6);
+        }
+        s_lastNanos = System.nanoTime();
+    }
+
+    /**
+     * Ends profiling: prints each phase and logs it.
+     *
+     * @param log Log to record the phases in
+     */
+    public static synchronized void finish(DataLog log) {
+        if (s_finished) {
+            return;
+        }
+        s_finished = true;
+
+        double total = 0;
+        StringBuilder report = new StringBuilder("INFO: Robot startup\n");
+        for (int i = 0; i < s_phases.size(); i++) {
+            double millis = s_millis.get(i);
+            total += millis;
+            report.append(String.format("  %-28s %8.1f ms%n", s_phases.get(i), millis));
+            new DoubleLogEntry(log, "Boot/" + s_phases.get(i) + " (ms)").append(millis);
+        }
+        report.append(String.format("  %-28s %8.1f ms", "Total", total));
+        new DoubleLogEntry(log, "Boot/Total (ms)").append(total);
+        System.out.println(report);
+    }
+
+    /**
+     * Whether this JVM is the class-data-sharing training run rather than normal robot code.
+     *
+     * @return True when launched with -Dfrc.cds.training=true
+     */
+    public static boolean isTrainingRun() {
+        return Boolean.getBoolean(kTrainingProperty);
+    }
+
+    /** Ends the training run. Exiting normally is what makes the JVM write its class list. */
+    public static void endTrainingRun() {
+        System.out.println("INFO: Class-data-sharing training run complete, exiting");
+        System.exit(0);
+    }
+}
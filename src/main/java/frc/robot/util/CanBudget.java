@@ -0,0 +1,174 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.CANBus;
+import com.ctre.phoenix6.CANBus.CANBusStatus;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.hardware.ParentDevice;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants.CanConstants;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the CAN bus within budget.
+ *
+ * <p>Each subsystem registers its devices together with the status signals it actually reads.
+ * Those signals get an explicit update frequency, every other status frame on the device is turned
+ * off with {@code optimizeBusUtilization()}, and the resulting per-device frame rates are
+ * published next to the bus utilization and error counters reported by {@link CANBus#getStatus()}.
+ * Control frames go through {@link CoalescingMotorOutput}s created here, so their sent/skipped
+ * counts are published alongside.
+ */
+public class CanBudget {
+    private final CANBus m_bus = new CANBus(CanConstants.kCanBusName);
+    private final List<Device> m_devices = new ArrayList<>();
+    private final List<CoalescingMotorOutput> m_outputs = new ArrayList<>();
+    // Dashboard keys for m_outputs, built once so publishing doesn't concatenate strings
+    private final List<String> m_outputKeys = new ArrayList<>();
+    private double m_lastPublishTime = Double.NEGATIVE_INFINITY;
+
+    private static final class Device {
+        private final String m_framesKey;
+        private final BaseStatusSignal[] m_signals;
+
+        private Device(String name, BaseStatusSignal[] signals) {
+            m_framesKey = "CAN/Frames/" + name;
+            m_signals = signals;
+        }
+
+        /** Sum of the update rates the device actually applied to its signals, in frames/s. */
+        private double framesPerSecond() {
+            double total = 0;
+            for (BaseStatusSignal signal : m_signals) {
+                total += signal.getAppliedUpdateFrequency();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Registers a device, sets the update frequency of the given signals and disables all other
+     * status frames on it.
+     *
+     * @param name Dashboard name for the device (e.g. "Drive Left")
+     * @param device The Phoenix 6 device
+     * @param frequencyHz Update frequency to apply to the given signals
+     * @param signals The signals this device's subsystem actually reads
+     */
+    public void configureDevice(String name, ParentDevice device, double frequencyHz, BaseStatusSignal... signals) {
+        StatusCode status = BaseStatusSignal.setUpdateFrequencyForAll(frequencyHz, signals);
+        if (!status.isOK()) {
+            System.err.println("WARNING: Failed to set signal rates for " + name + ": " + status);
+        }
+        addDevice(name, device, signals);
+    }
+
+    /**
+     * Same as {@link #configureDevice(String, ParentDevice, double, BaseStatusSignal...)} but with
+     * separate rates for signals used by control code and signals only used for telemetry.
+     *
+     * @param name Dashboard name for the device
+     * @param device The Phoenix 6 device
+     * @param controlSignals Signals read by control code every loop
+     * @param telemetrySignals Signals only read for dashboards/diagnostics
+     */
+    public void configureDevice(
+            String name, ParentDevice device, BaseStatusSignal[] controlSignals, BaseStatusSignal[] telemetrySignals) {
+        StatusCode control = BaseStatusSignal.setUpdateFrequencyForAll(CanConstants.kControlSignalHz, controlSignals);
+        StatusCode telemetry = BaseStatusSignal.setUpdateFrequencyForAll(CanConstants.kTelemetrySignalHz, telemetrySignals);
+        if (!control.isOK() || !telemetry.isOK()) {
+            System.err.println("WARNING: Failed to set signal rates for " + name + ": " + control + " / " + telemetry);
+        }
+
+        BaseStatusSignal[] all = new BaseStatusSignal[controlSignals.length + telemetrySignals.length];
+        System.arraycopy(controlSignals, 0, all, 0, controlSignals.length);
+        System.arraycopy(telemetrySignals, 0, all, controlSignals.length, telemetrySignals.length);
+        addDevice(name, device, all);
+    }
+
+    private void addDevice(String name, ParentDevice device, BaseStatusSignal[] signals) {
+        // Must come after the explicit rates above: anything not given a rate is turned off
+        StatusCode status = device.optimizeBusUtilization();
+        if (!status.isOK()) {
+            System.err.println("WARNING: Failed to optimize bus utilization for " + name + ": " + status);
+        }
+        m_devices.add(new Device(name, signals));
+    }
+
+    /**
+     * Creates the output layer a subsystem must use to command a motor.
+     *
+     * @param name Dashboard name for the device
+     * @param motor The motor to control
+     * @return Output layer for the motor
+     */
+    public CoalescingMotorOutput createOutput(String name, TalonFX motor) {
+        CoalescingMotorOutput output = new CoalescingMotorOutput(name, motor);
+        m_outputs.add(output);
+        m_outputKeys.add("CAN/Control Frames Skipped/" + name);
+        return output;
+    }
+
+    /**
+     * Estimated status frames per second for every registered device combined.
+     *
+     * @return Estimated frames per second
+     */
+    public double getEstimatedFramesPerSecond() {
+        double total = 0;
+        for (Device device : m_devices) {
+            total += device.framesPerSecond();
+        }
+        return total;
+    }
+
+    /**
+     * Publishes bus status and per-device frame rates. Call once per loop; the bus itself is only
+     * sampled every {@link CanConstants#kStatusPublishPeriodSeconds}.
+     */
+    public void periodic() {
+        double now = Timer.getFPGATimestamp();
+        if (now - m_lastPublishTime < CanConstants.kStatusPublishPeriodSeconds) {
+            return;
+        }
+        m_lastPublishTime = now;
+
+        CANBusStatus status = m_bus.getStatus();
+        if (status.Status.isOK()) {
+            SmartDashboard.putNumber("CAN/Utilization (%)", status.BusUtilization * 100.0);
+            SmartDashboard.putNumber("CAN/Bus Off Count", status.BusOffCount);
+            SmartDashboard.putNumber("CAN/TX Full Count", status.TxFullCount);
+            SmartDashboard.putNumber("CAN/RX Errors", status.REC);
+            SmartDashboard.putNumber("CAN/TX Errors", status.TEC);
+        }
+        SmartDashboard.putString("CAN/Status", status.Status.toString());
+
+        double totalFrames = 0;
+        for (Device device : m_devices) {
+            double frames = device.framesPerSecond();
+            totalFrames += frames;
+            SmartDashboard.putNumber(device.m_framesKey, frames);
+        }
+        SmartDashboard.putNumber("CAN/Status Frames Per Second", totalFrames);
+        SmartDashboard.putNumber(
+                "CAN/Status Frame Budget (%)", totalFrames / CanConstants.kBusCapacityFramesPerSecond * 100.0);
+
+        long sent = 0;
+        long skipped = 0;
+        for (int i = 0; i < m_outputs.size(); i++) {
+            CoalescingMotorOutput output = m_outputs.get(i);
+            sent += output.getFramesSent();
+            skipped += output.getFramesSkipped();
+            SmartDashboard.putNumber(m_outputKeys.get(i), output.getFramesSkipped());
+        }
+        SmartDashboard.putNumber("CAN/Control Frames Sent", sent);
+        SmartDashboard.putNumber("CAN/Control Frames Skipped", skipped);
+    }
+}
@@ -0,0 +1,119 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.ctre.phoenix6.controls.DutyCycleOut;
+import com.ctre.phoenix6.controls.NeutralOut;
+import com.ctre.phoenix6.controls.VelocityVoltage;
+import com.ctre.phoenix6.hardware.TalonFX;
+import frc.robot.Constants.CanConstants;
+
+/**
+ * Output layer between a subsystem and its TalonFX that skips redundant control frames.
+ *
+ * <p>Default commands and closed-loop commands tend to send the same request every loop. This class
+ * remembers the last request sent to the device and only sends a new one when the mode or value
+ * changes. Phoenix repeats the active request in the background at
+ * {@link CanConstants#kControlUpdateHz}, from its own thread, so the device keeps hearing from us
+ * at a steady rate however late or jittery the robot loop runs.
+ */
+public class CoalescingMotorOutput {
+    private static final int kModeNone = 0;
+    private static final int kModeDutyCycle = 1;
+    private static final int kModeVelocity = 2;
+    private static final int kModeNeutral = 3;
+
+    private final String m_name;
+    private final TalonFX m_motor;
+    private final DutyCycleOut m_dutyCycle = new DutyCycleOut(0).withUpdateFreqHz(CanConstants.kControlUpdateHz);
+    private final VelocityVoltage m_velocity =
+            new VelocityVoltage(0).withUpdateFreqHz(CanConstants.kControlUpdateHz);
+    private final NeutralOut m_neutral = new NeutralOut().withUpdateFreqHz(0);
+
+    private int m_lastMode = kModeNone;
+    private double m_lastValue;
+    private long m_framesSent;
+    private long m_framesSkipped;
+
+    /**
+     * Creates an output layer for a motor. Prefer {@link CanBudget#createOutput(String, TalonFX)},
+     * which also publishes the frame counters.
+     *
+     * @param name Dashboard name for the device
+     * @param motor The motor to control
+     */
+    public CoalescingMotorOutput(String name, TalonFX motor) {
+        m_name = name;
+        m_motor = motor;
+    }
+
+    /**
+     * Requests a duty cycle output.
+     *
+     * @param output Duty cycle (-1.0 to 1.0)
+     */
+    public void setDutyCycle(double output) {
+        if (shouldSend(kModeDutyCycle, output)) {
+            m_motor.setControl(m_dutyCycle.withOutput(output));
+        }
+    }
+
+    /**
+     * Requests a closed-loop velocity using the gains in slot 0.
+     *
+     * @param velocityRPS Target velocity in rotations per second
+     */
+    public void setVelocity(double velocityRPS) {
+        if (shouldSend(kModeVelocity, velocityRPS)) {
+            m_motor.setControl(m_velocity.withVelocity(velocityRPS));
+        }
+    }
+
+    /**
+     * Puts the motor in its configured neutral mode (brake or coast). Sent once and not repeated
+     * (0 Hz): a device that stops hearing control frames goes neutral anyway, so there is nothing to
+     * repeat until the next request.
+     */
+    public void setNeutral() {
+        if (m_lastMode == kModeNeutral) {
+            m_framesSkipped++;
+            return;
+        }
+        m_lastMode = kModeNeutral;
+        m_framesSent++;
+        m_motor.setControl(m_neutral);
+    }
+
+    /** Forgets the last request so the next one is always sent (e.g. after a device reboot). */
+    public void invalidate() {
+        m_lastMode = kModeNone;
+    }
+
+    private boolean shouldSend(int mode, double value) {
+        if (mode == m_lastMode && Math.abs(value - m_lastValue) < CanConstants.kControlChangeTolerance) {
+            m_framesSkipped++;
+            return false;
+        }
+        m_lastMode = mode;
+        m_lastValue = value;
+        m_framesSent++;
+        return true;
+    }
+
+    /** @return Dashboard name for the device */
+    public String getName() {
+        return m_name;
+    }
+
+    /** @return Number of control requests actually sent (Phoenix then repeats each one) */
+    public long getFramesSent() {
+        return m_framesSent;
+    }
+
+    /** @return Number of control requests skipped because nothing changed */
+    public long getFramesSkipped() {
+        return m_framesSkipped;
+    }
+}
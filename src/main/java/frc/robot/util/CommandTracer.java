@@ -0,0 +1,195 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.WrapperCommand;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Records command lifecycles and loop boundaries, and exports them as Chrome trace-event JSON.
+ *
+ * <p>Scheduled commands are traced through the scheduler's init/execute/finish/interrupt hooks.
+ * The scheduler never sees commands inside a group, so group children can be wrapped with
+ * {@link #wrap(Command)} to trace them too, including how long each execute() took.
+ *
+ * <p>Events go into preallocated parallel arrays, so recording never allocates. When the buffer is
+ * full further events are dropped and counted. Each command's lifetime is an async span and its
+ * executes are marks (or timed slices, when wrapped) inside the "Loop" span of the cycle they ran in.
+ */
+public class CommandTracer {
+    private static final byte kLoopBegin = 0;
+    private static final byte kLoopEnd = 1;
+    private static final byte kInitialize = 2;
+    private static final byte kExecute = 3;
+    private static final byte kExecuteTimed = 4;
+    private static final byte kFinish = 5;
+    private static final byte kInterrupt = 6;
+
+    private final long[] m_timestamps;
+    private final long[] m_durations;
+    private final byte[] m_types;
+    private final Command[] m_commands;
+    private int m_count = 0;
+    private long m_dropped = 0;
+
+    /** Wraps a group child so its lifecycle is traced even though the scheduler can't see it. */
+    private final class TracedCommand extends WrapperCommand {
+        private TracedCommand(Command command) {
+            super(command);
+        }
+
+        @Override
+        public void initialize() {
+            record(kInitialize, m_command, 0);
+            super.initialize();
+        }
+
+        @Override
+        public void execute() {
+            long start = RobotController.getFPGATime();
+            super.execute();
+            record(kExecuteTimed, m_command, start, RobotController.getFPGATime() - start);
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            super.end(interrupted);
+            record(interrupted ? kInterrupt : kFinish, m_command, 0);
+        }
+    }
+
+    /**
+     * Creates a tracer and hooks it into the command scheduler.
+     *
+     * @param capacity Maximum number of events recorded
+     */
+    public CommandTracer(int capacity) {
+        m_timestamps = new long[capacity];
+        m_durations = new long[capacity];
+        m_types = new byte[capacity];
+        m_commands = new Command[capacity];
+
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        scheduler.onCommandInitialize(command -> record(kInitialize, command, 0));
+        scheduler.onCommandExecute(command -> record(kExecute, command, 0));
+        scheduler.onCommandFinish(command -> record(kFinish, command, 0));
+        scheduler.onCommandInterrupt(command -> record(kInterrupt, command, 0));
+    }
+
+    /**
+     * Wraps a command so it is traced when run inside a group.
+     *
+     * @param command Command to trace
+     * @return Traced command; use it in place of the original
+     */
+    public Command wrap(Command command) {
+        return new TracedCommand(command);
+    }
+
+    /** Marks the start of a robot loop. Call before running the scheduler. */
+    public void loopStart() {
+        record(kLoopBegin, null, 0);
+    }
+
+    /** Marks the end of a robot loop. Call after the scheduler (and logging) have run. */
+    public void loopEnd() {
+        record(kLoopEnd, null, 0);
+    }
+
+    private void record(byte type, Command command, long duration) {
+        record(type, command, RobotController.getFPGATime(), duration);
+    }
+
+    private void record(byte type, Command command, long timestamp, long duration) {
+        if (m_count == m_types.length) {
+            m_dropped++;
+            return;
+        }
+        m_types[m_count] = type;
+        m_commands[m_count] = command;
+        m_timestamps[m_count] = timestamp;
+        m_durations[m_count] = duration;
+        m_count++;
+    }
+
+    /**
+     * Writes the recorded events to a new trace file and clears the buffer. Does file I/O; call it
+     * when the robot is disabled.
+     *
+     * @param directory Directory to write to; created if missing
+     * @return The trace file, or null if nothing was recorded or the write failed
+     */
+    public File export(File directory) {
+        if (m_count == 0) {
+            return null;
+        }
+
+        directory.mkdirs();
+        File file = new File(directory, "commands-" + m_timestamps[0] + ".json");
+        try (Writer out = new BufferedWriter(new FileWriter(file))) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            for (int i = 0; i < m_count; i++) {
+                out.write(i == 0 ? "  " : ",\n  ");
+                writeEvent(out, i);
+            }
+            out.write("\n],\"otherData\":{\"droppedEvents\":" + m_dropped + "}}\n");
+        } catch (IOException e) {
+            System.err.println("WARNING: Could not write command trace " + file + ": " + e.getMessage());
+            return null;
+        } finally {
+            clear();
+        }
+
+        System.out.println("INFO: Wrote command trace " + file);
+        return file;
+    }
+
+    private void writeEvent(Writer out, int i) throws IOException {
+        String common = "\"pid\":1,\"tid\":1,\"ts\":" + m_timestamps[i];
+        Command command = m_commands[i];
+        switch (m_types[i]) {
+            case kLoopBegin:
+                out.write("{\"name\":\"Loop\",\"ph\":\"B\"," + common + "}");
+                break;
+            case kLoopEnd:
+                out.write("{\"name\":\"Loop\",\"ph\":\"E\"," + common + "}");
+                break;
+            case kExecute:
+                out.write("{\"name\":" + quote(command.getName()) + ",\"cat\":\"execute\",\"ph\":\"i\",\"s\":\"t\","
+                        + common + "}");
+                break;
+            case kExecuteTimed:
+                out.write("{\"name\":" + quote(command.getName()) + ",\"cat\":\"execute\",\"ph\":\"X\",\"dur\":"
+                        + m_durations[i] + "," + common + "}");
+                break;
+            default:
+                // Lifetime spans are async (they overlap freely), matched by name and command identity
+                boolean begin = m_types[i] == kInitialize;
+                out.write("{\"name\":" + quote(command.getName()) + ",\"cat\":\"command\",\"ph\":\""
+                        + (begin ? "b" : "e") + "\",\"id\":" + System.identityHashCode(command) + "," + common
+                        + (m_types[i] == kInterrupt ? ",\"args\":{\"interrupted\":true}" : "") + "}");
+                break;
+        }
+    }
+
+    private static String quote(String text) {
+        return "\"" + text.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private void clear() {
+        // Drop command references so finished commands can be collected
+        Arrays.fill(m_commands, 0, m_count, null);
+        m_count = 0;
+        m_dropped = 0;
+    }
+}
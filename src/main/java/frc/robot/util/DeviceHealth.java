@@ -0,0 +1,96 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.Alert;
+import edu.wpi.first.wpilibj.Alert.AlertType;
+import frc.robot.Constants.HealthConstants;
+
+/**
+ * Health of a single TalonFX, as last checked by {@link DeviceHealthMonitor}.
+ *
+ * <p>Commands use {@link #isHealthy()} to decide whether the device's sensor can be trusted.
+ * A device is healthy when it is connected and its freshness signal is recent. Faults and
+ * temperature only raise alerts; the motor keeps running.
+ */
+public class DeviceHealth {
+    private final String m_name;
+    private final TalonFX m_device;
+    private final BaseStatusSignal m_freshnessSignal;
+    private final StatusSignal<?> m_temperature;
+    private final StatusSignal<Integer> m_stickyFaults;
+    // Refreshed together each check; kept so the varargs array isn't rebuilt every call
+    private final BaseStatusSignal[] m_checkSignals;
+
+    private final Alert m_disconnectedAlert;
+    private final Alert m_staleAlert;
+    private final Alert m_faultAlert;
+    private final Alert m_temperatureAlert;
+
+    // Healthy until proven otherwise, so commands are not aborted before the first check
+    private boolean m_healthy = true;
+
+    DeviceHealth(String name, TalonFX device, BaseStatusSignal freshnessSignal) {
+        m_name = name;
+        m_device = device;
+        m_freshnessSignal = freshnessSignal;
+        m_temperature = device.getDeviceTemp(false);
+        m_stickyFaults = device.getStickyFaultField(false);
+        m_checkSignals = new BaseStatusSignal[] {freshnessSignal, m_temperature, m_stickyFaults};
+
+        m_disconnectedAlert = new Alert(name + " disconnected from CAN", AlertType.kError);
+        m_staleAlert = new Alert(name + " sensor data is stale", AlertType.kWarning);
+        m_faultAlert = new Alert(name + " has sticky faults", AlertType.kWarning);
+        m_temperatureAlert = new Alert(name + " is over temperature", AlertType.kWarning);
+    }
+
+    /**
+     * Signals the monitor needs at telemetry rate. Pass these to
+     * {@link CanBudget#configureDevice(String, com.ctre.phoenix6.hardware.ParentDevice, BaseStatusSignal[], BaseStatusSignal[])}
+     * so {@code optimizeBusUtilization()} does not turn them off.
+     *
+     * @return Temperature and sticky fault signals
+     */
+    public BaseStatusSignal[] getTelemetrySignals() {
+        return new BaseStatusSignal[] {m_temperature, m_stickyFaults};
+    }
+
+    /** Refreshes this device's signals and updates its alerts. Called by the monitor. */
+    void check() {
+        BaseStatusSignal.refreshAll(m_checkSignals);
+
+        boolean connected = m_device.isConnected();
+        boolean fresh = m_freshnessSignal.getStatus().isOK()
+                && m_freshnessSignal.getTimestamp().getLatency() < HealthConstants.kStaleSignalSeconds;
+
+        m_disconnectedAlert.set(!connected);
+        m_staleAlert.set(connected && !fresh);
+        m_faultAlert.set(connected && m_stickyFaults.getValue() != 0);
+        m_temperatureAlert.set(connected && m_temperature.getValueAsDouble() > HealthConstants.kMaxDeviceTempCelsius);
+
+        boolean healthy = connected && fresh;
+        if (healthy != m_healthy) {
+            System.err.println((healthy ? "INFO: " : "WARNING: ") + m_name + (healthy ? " recovered" : " is unhealthy"));
+        }
+        m_healthy = healthy;
+    }
+
+    /**
+     * Whether the device is connected and its sensor data is fresh.
+     *
+     * @return True if the device's readings can be trusted
+     */
+    public boolean isHealthy() {
+        return m_healthy;
+    }
+
+    /** @return Dashboard name for the device */
+    public String getName() {
+        return m_name;
+    }
+}
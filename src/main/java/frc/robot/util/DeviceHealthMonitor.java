@@ -0,0 +1,53 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches every registered TalonFX for disconnects, stale sensor data, sticky faults and
+ * over-temperature.
+ *
+ * <p>Checks are staggered round-robin: each call to {@link #periodic()} checks a single device, so
+ * the cost per loop stays constant no matter how many devices are registered.
+ */
+public class DeviceHealthMonitor {
+    private final List<DeviceHealth> m_devices = new ArrayList<>();
+    // Dashboard keys, built once so checks don't concatenate strings every loop
+    private final List<String> m_keys = new ArrayList<>();
+    private int m_nextDevice = 0;
+
+    /**
+     * Registers a device for health checks.
+     *
+     * @param name Dashboard name for the device (e.g. "Drive Left")
+     * @param device The motor controller
+     * @param freshnessSignal A control-rate signal whose age tells whether the device is still reporting
+     * @return Health handle for the device; query {@link DeviceHealth#isHealthy()} from commands
+     */
+    public DeviceHealth register(String name, TalonFX device, BaseStatusSignal freshnessSignal) {
+        DeviceHealth health = new DeviceHealth(name, device, freshnessSignal);
+        m_devices.add(health);
+        m_keys.add("Health/" + name);
+        return health;
+    }
+
+    /** Checks the next device in the rotation. Call once per loop. */
+    public void periodic() {
+        if (m_devices.isEmpty()) {
+            return;
+        }
+
+        DeviceHealth device = m_devices.get(m_nextDevice);
+        device.check();
+        SmartDashboard.putBoolean(m_keys.get(m_nextDevice), device.isHealthy());
+
+        m_nextDevice = (m_nextDevice + 1) % m_devices.size();
+    }
+}
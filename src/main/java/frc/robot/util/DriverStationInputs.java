@@ -0,0 +1,99 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.Constants.OIConstants;
+
+/**
+ * Driver Station state and the driver joystick, recorded each cycle so replay sees the same mode
+ * changes and stick inputs as the match. The alliance station is recorded too: field positions and
+ * path flipping depend on the alliance, so a red match must replay as red.
+ */
+public class DriverStationInputs implements LoggableInputs {
+    private static final int kMaxAxes = 6;
+    private static final String[] kAxisKeys = {"Axis0", "Axis1", "Axis2", "Axis3", "Axis4", "Axis5"};
+    // Copied once; values() clones the array on every call
+    private static final AllianceStationID[] kStations = AllianceStationID.values();
+
+    public boolean dsAttached = false;
+    public boolean enabled = false;
+    public boolean autonomous = false;
+    public boolean test = false;
+    /** {@link AllianceStationID} ordinal; Unknown until the Driver Station reports one. */
+    public int allianceStation = AllianceStationID.Unknown.ordinal();
+    public int axisCount = 0;
+    public final double[] axes = new double[kMaxAxes];
+    public int buttonCount = 0;
+    public int buttons = 0;
+
+    /** Reads the current state from the Driver Station. */
+    public void update() {
+        int port = OIConstants.kDriverJoystickPort;
+        dsAttached = DriverStation.isDSAttached();
+        enabled = DriverStation.isEnabled();
+        autonomous = DriverStation.isAutonomous();
+        test = DriverStation.isTest();
+        allianceStation = DriverStation.getRawAllianceStation().ordinal();
+        axisCount = Math.min(DriverStation.getStickAxisCount(port), kMaxAxes);
+        for (int i = 0; i < axisCount; i++) {
+            axes[i] = DriverStation.getStickAxis(port, i);
+        }
+        buttonCount = DriverStation.getStickButtonCount(port);
+        buttons = DriverStation.getStickButtons(port);
+    }
+
+    /** Pushes this state into the simulated Driver Station, so robot code reads it back next cycle. */
+    public void applyToSim() {
+        int port = OIConstants.kDriverJoystickPort;
+        DriverStationSim.setDsAttached(dsAttached);
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setTest(test);
+        DriverStationSim.setAllianceStationId(kStations[allianceStation]);
+        DriverStationSim.setJoystickAxisCount(port, axisCount);
+        for (int i = 0; i < axisCount; i++) {
+            DriverStationSim.setJoystickAxis(port, i, axes[i]);
+        }
+        DriverStationSim.setJoystickButtonCount(port, buttonCount);
+        DriverStationSim.setJoystickButtons(port, buttons);
+        DriverStationSim.notifyNewData();
+    }
+
+    @Override
+    public void toLog(LogTable table) {
+        table.put("DSAttached", dsAttached);
+        table.put("Enabled", enabled);
+        table.put("Autonomous", autonomous);
+        table.put("Test", test);
+        table.put("AllianceStation", allianceStation);
+        table.put("AxisCount", axisCount);
+        for (int i = 0; i < axisCount; i++) {
+            table.put(kAxisKeys[i], axes[i]);
+        }
+        table.put("ButtonCount", buttonCount);
+        table.put("Buttons", buttons);
+    }
+
+    @Override
+    public void fromLog(LogTable table) {
+        dsAttached = table.get("DSAttached", dsAttached);
+        enabled = table.get("Enabled", enabled);
+        autonomous = table.get("Autonomous", autonomous);
+        test = table.get("Test", test);
+        allianceStation = (int) table.get("AllianceStation", allianceStation);
+        if (allianceStation < 0 || allianceStation >= kStations.length) {
+            allianceStation = AllianceStationID.Unknown.ordinal();
+        }
+        axisCount = (int) table.get("AxisCount", axisCount);
+        for (int i = 0; i < axisCount; i++) {
+            axes[i] = table.get(kAxisKeys[i], axes[i]);
+        }
+        buttonCount = (int) table.get("ButtonCount", buttonCount);
+        buttons = (int) table.get("Buttons", buttons);
+    }
+}
@@ -0,0 +1,72 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.pathplanner.lib.util.FlippingUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import frc.robot.Constants.FieldConstants;
+
+/**
+ * Field positions for the robot's alliance, in the same field frame PathPlanner uses for the
+ * robot's pose.
+ *
+ * <p>{@link FieldConstants} gives each position for the blue alliance; on red they are flipped the
+ * way PathPlanner flips paths. The alliance is only read in {@link #update()} (which allocates), so
+ * the per-loop getters stay allocation-free.
+ */
+public class FieldGoal {
+    private double m_goalXMeters;
+    private double m_goalYMeters;
+    private Pose2d m_startPose;
+    private Pose2d m_scoringPose;
+
+    /** Creates the positions for the alliance known now (blue if none yet). */
+    public FieldGoal() {
+        update();
+    }
+
+    /** Re-reads the alliance. Call when a mode starts, once the Driver Station has reported it. */
+    public void update() {
+        Translation2d goal = new Translation2d(FieldConstants.kGoalXMeters, FieldConstants.kGoalYMeters);
+        Pose2d start = new Pose2d(FieldConstants.kStartXMeters, FieldConstants.kStartYMeters,
+                Rotation2d.fromDegrees(FieldConstants.kStartHeadingDegrees));
+        // Facing the goal from the starting-line side
+        Pose2d scoring = new Pose2d(FieldConstants.kGoalXMeters + FieldConstants.kScoringStandoffMeters,
+                FieldConstants.kGoalYMeters, Rotation2d.k180deg);
+        if (DriverStation.getAlliance().orElse(Alliance.Blue) == Alliance.Red) {
+            goal = FlippingUtil.flipFieldPosition(goal);
+            start = FlippingUtil.flipFieldPose(start);
+            scoring = FlippingUtil.flipFieldPose(scoring);
+        }
+        m_goalXMeters = goal.getX();
+        m_goalYMeters = goal.getY();
+        m_startPose = start;
+        m_scoringPose = scoring;
+    }
+
+    /** @return Goal X in the field frame, in meters */
+    public double getGoalXMeters() {
+        return m_goalXMeters;
+    }
+
+    /** @return Goal Y in the field frame, in meters */
+    public double getGoalYMeters() {
+        return m_goalYMeters;
+    }
+
+    /** @return Pose the driver can auto-align to for a shot */
+    public Pose2d getScoringPose() {
+        return m_scoringPose;
+    }
+
+    /** @return Where the robot is placed when no auto sets its pose */
+    public Pose2d getStartPose() {
+        return m_startPose;
+    }
+}
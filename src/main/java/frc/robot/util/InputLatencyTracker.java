@@ -0,0 +1,173 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.hal.DriverStationJNI;
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants.OIConstants;
+import java.util.Arrays;
+
+/**
+ * Measures how long a driver's stick movement takes to reach the drive motors.
+ *
+ * <p>Each teleop drive cycle is split into stages, all timed on the FPGA clock:
+ * <ul>
+ *   <li>DS packet: arrival of the newest Driver Station packet (stamped by a thread waiting on the
+ *       HAL's new-data event) to the joystick read in the drive command</li>
+ *   <li>Compute: joystick read to the duty cycles being worked out</li>
+ *   <li>Write: handing the duty cycles to the motor controllers (the CAN write)</li>
+ *   <li>Actuation: CAN write to the motor reporting that output, for step changes only</li>
+ *   <li>Total: DS packet arrival to the motor reporting the output, for the same steps</li>
+ * </ul>
+ *
+ * <p>Only steps of at least {@link OIConstants#kLatencyStepDutyCycle} are timed through to
+ * actuation: small changes are lost in the reported output's resolution. Every sample is logged
+ * under "Latency/", and {@link #publish()} puts each stage's median, 95th percentile and max over
+ * the last {@link OIConstants#kLatencyWindowSamples} samples on the dashboard. Recording does not
+ * allocate.
+ */
+public class InputLatencyTracker {
+    /** Recent samples of one stage, in milliseconds. */
+    private static final class Stage {
+        private final String m_p50Key;
+        private final String m_p95Key;
+        private final String m_maxKey;
+        private final DoubleLogEntry m_entry;
+        private final double[] m_samples = new double[OIConstants.kLatencyWindowSamples];
+        private final double[] m_sorted = new double[OIConstants.kLatencyWindowSamples];
+        private int m_count = 0;
+        private int m_next = 0;
+
+        private Stage(DataLog log, String name) {
+            m_p50Key = "Latency/" + name + " p50 (ms)";
+            m_p95Key = "Latency/" + name + " p95 (ms)";
+            m_maxKey = "Latency/" + name + " max (ms)";
+            m_entry = new DoubleLogEntry(log, "Latency/" + name + " (ms)");
+        }
+
+        private void add(long micros) {
+            double millis = micros / 1000.0;
+            m_entry.append(millis);
+            m_samples[m_next] = millis;
+            m_next = (m_next + 1) % m_samples.length;
+            m_count = Math.min(m_count + 1, m_samples.length);
+        }
+
+        private void publish() {
+            if (m_count == 0) {
+                return;
+            }
+            System.arraycopy(m_samples, 0, m_sorted, 0, m_count);
+            Arrays.sort(m_sorted, 0, m_count);
+            SmartDashboard.putNumber(m_p50Key, m_sorted[(m_count - 1) / 2]);
+            SmartDashboard.putNumber(m_p95Key, m_sorted[(int) ((m_count - 1) * 0.95)]);
+            SmartDashboard.putNumber(m_maxKey, m_sorted[m_count - 1]);
+        }
+    }
+
+    private final Stage m_packet;
+    private final Stage m_compute;
+    private final Stage m_write;
+    private final Stage m_actuation;
+    private final Stage m_total;
+    private volatile long m_lastPacketMicros = 0;
+
+    // Step being timed through to actuation; only touched from the robot loop
+    private boolean m_stepPending = false;
+    private double m_stepDutyCycle;
+    private long m_stepPacketMicros;
+    private long m_stepWriteMicros;
+    private double m_lastDutyCycle = 0.0;
+
+    /**
+     * Creates a tracker and starts the thread that stamps Driver Station packets.
+     *
+     * @param log Log to record each sample in
+     */
+    public InputLatencyTracker(DataLog log) {
+        m_packet = new Stage(log, "DS Packet");
+        m_compute = new Stage(log, "Compute");
+        m_write = new Stage(log, "Write");
+        m_actuation = new Stage(log, "Actuation");
+        m_total = new Stage(log, "Total");
+
+        int event = WPIUtilJNI.createEvent(false, false);
+        DriverStationJNI.provideNewDataEventHandle(event);
+        Thread thread = new Thread(() -> {
+            try {
+                while (true) {
+                    WPIUtilJNI.waitForObject(event);
+                    m_lastPacketMicros = RobotController.getFPGATime();
+                }
+            } catch (InterruptedException e) {
+                DriverStationJNI.removeNewDataEventHandle(event);
+            }
+        }, "InputLatency");
+        thread.setDaemon(true);
+        // Stamps should be taken as soon as the packet lands, ahead of the robot loop
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Records one drive cycle.
+     *
+     * @param readMicros FPGA time the joystick was read
+     * @param computedMicros FPGA time the duty cycles were worked out
+     * @param writtenMicros FPGA time the duty cycles had been handed to the motor controllers
+     * @param dutyCycle Duty cycle sent to the motor whose reported output is tracked
+     */
+    public void recordCycle(long readMicros, long computedMicros, long writtenMicros, double dutyCycle) {
+        long packetMicros = m_lastPacketMicros;
+        if (packetMicros > 0 && packetMicros <= readMicros) {
+            m_packet.add(readMicros - packetMicros);
+        }
+        m_compute.add(computedMicros - readMicros);
+        m_write.add(writtenMicros - computedMicros);
+
+        if (!m_stepPending && Math.abs(dutyCycle - m_lastDutyCycle) >= OIConstants.kLatencyStepDutyCycle) {
+            m_stepPending = true;
+            m_stepDutyCycle = dutyCycle;
+            m_stepPacketMicros = packetMicros;
+            m_stepWriteMicros = writtenMicros;
+        }
+        m_lastDutyCycle = dutyCycle;
+    }
+
+    /**
+     * Checks the motor's reported output against a pending step. Call every cycle.
+     *
+     * @param appliedDutyCycle Duty cycle the motor reports applying
+     * @param appliedMicros FPGA time of that report
+     */
+    public void recordApplied(double appliedDutyCycle, long appliedMicros) {
+        if (!m_stepPending || appliedMicros < m_stepWriteMicros) {
+            return;
+        }
+        if (Math.abs(appliedDutyCycle - m_stepDutyCycle) <= OIConstants.kLatencyAppliedTolerance) {
+            m_actuation.add(appliedMicros - m_stepWriteMicros);
+            if (m_stepPacketMicros > 0) {
+                m_total.add(appliedMicros - m_stepPacketMicros);
+            }
+            m_stepPending = false;
+        } else if (appliedMicros - m_stepWriteMicros > OIConstants.kLatencyTimeoutMicros) {
+            // Output was limited or changed again before it got there; don't report a bogus time
+            m_stepPending = false;
+        }
+    }
+
+    /** Publishes each stage's distribution. Call at the telemetry rate. */
+    public void publish() {
+        m_packet.publish();
+        m_compute.publish();
+        m_write.publish();
+        m_actuation.publish();
+        m_total.publish();
+    }
+}
@@ -0,0 +1,99 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.RobotController;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Records every subsystem's inputs once per cycle so a match can be replayed offline.
+ *
+ * <p>Subsystems call {@link #process(String, LoggableInputs)} right after reading their IO. On the
+ * robot (and in simulation) the inputs are written to the log under {@code /RealInputs/}. During
+ * replay the same call first overwrites the inputs with the values recorded for the current cycle,
+ * so the rest of the code runs exactly as it did in the match.
+ */
+public class InputLog {
+    /** Prefix of every recorded input entry. */
+    public static final String kPrefix = "/RealInputs/";
+    /** Entry holding the timestamp of each recorded cycle, in seconds. */
+    public static final String kTimestampEntry = kPrefix + "Timestamp";
+
+    private final DataLog m_log;
+    private final ReplaySource m_replay;
+    private final DoubleLogEntry m_timestamp;
+    private final Map<String, LogTable> m_tables = new HashMap<>();
+    private long m_cycleTimestampMicros;
+
+    /**
+     * Creates an input log.
+     *
+     * @param log Log to record inputs to
+     * @param replay Source to replay inputs from, or null when running live
+     */
+    public InputLog(DataLog log, ReplaySource replay) {
+        m_log = log;
+        m_replay = replay;
+        m_timestamp = new DoubleLogEntry(log, kTimestampEntry);
+    }
+
+    /** Starts a new cycle. Call once per loop, before any subsystem processes its inputs. */
+    public void beginCycle() {
+        m_cycleTimestampMicros = isReplay() ? m_replay.getCycleTimestampMicros() : RobotController.getFPGATime();
+        m_timestamp.append(m_cycleTimestampMicros / 1e6, m_cycleTimestampMicros);
+    }
+
+    /**
+     * Records a set of inputs, or restores them from the log during replay.
+     *
+     * @param name Group name, e.g. "Drive"
+     * @param inputs Inputs just read from the subsystem's IO
+     */
+    public void process(String name, LoggableInputs inputs) {
+        LogTable table = getTable(name);
+        if (isReplay()) {
+            inputs.fromLog(table);
+        }
+        inputs.toLog(table);
+    }
+
+    /**
+     * Restores a set of inputs from the current replay cycle without recording them. Used to apply
+     * Driver Station state before the robot loop runs.
+     *
+     * @param name Group name, e.g. "DriverStation"
+     * @param inputs Inputs to overwrite
+     */
+    public void restore(String name, LoggableInputs inputs) {
+        inputs.fromLog(getTable(name));
+    }
+
+    private LogTable getTable(String name) {
+        LogTable table = m_tables.get(name);
+        if (table == null) {
+            table = new LogTable(kPrefix + name + "/", m_log, this, m_replay);
+            m_tables.put(name, table);
+        }
+        return table;
+    }
+
+    /** @return The log inputs are recorded to */
+    public DataLog getDataLog() {
+        return m_log;
+    }
+
+    /** @return True if inputs come from a recorded log rather than hardware */
+    public boolean isReplay() {
+        return m_replay != null;
+    }
+
+    /** @return Timestamp of the current cycle, in FPGA microseconds */
+    long getCycleTimestampMicros() {
+        return m_cycleTimestampMicros;
+    }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One named group of inputs (e.g. "Drive") in the input log.
+ *
+ * <p>When recording, {@code put} appends to a WPILOG entry under {@code /RealInputs/<name>/}, stamped
+ * with the current cycle's timestamp so replay can line every value up with its cycle. When
+ * replaying, {@code get} returns the value recorded for the current replay cycle. Entries are created
+ * the first time a key is used, so steady-state cycles do not allocate.
+ */
+public class LogTable {
+    private final String m_prefix;
+    private final DataLog m_log;
+    private final InputLog m_inputLog;
+    private final ReplaySource m_replay;
+    private final Map<String, DoubleLogEntry> m_doubles = new HashMap<>();
+    private final Map<String, BooleanLogEntry> m_booleans = new HashMap<>();
+    private final Map<String, ReplaySource.Channel> m_channels = new HashMap<>();
+
+    LogTable(String prefix, DataLog log, InputLog inputLog, ReplaySource replay) {
+        m_prefix = prefix;
+        m_log = log;
+        m_inputLog = inputLog;
+        m_replay = replay;
+    }
+
+    /**
+     * Records a double for this cycle.
+     *
+     * @param key Field name
+     * @param value Value to record
+     */
+    public void put(String key, double value) {
+        DoubleLogEntry entry = m_doubles.get(key);
+        if (entry == null) {
+            entry = new DoubleLogEntry(m_log, m_prefix + key);
+            m_doubles.put(key, entry);
+        }
+        entry.append(value, m_inputLog.getCycleTimestampMicros());
+    }
+
+    /**
+     * Records a boolean for this cycle.
+     *
+     * @param key Field name
+     * @param value Value to record
+     */
+    public void put(String key, boolean value) {
+        BooleanLogEntry entry = m_booleans.get(key);
+        if (entry == null) {
+            entry = new BooleanLogEntry(m_log, m_prefix + key);
+            m_booleans.put(key, entry);
+        }
+        entry.append(value, m_inputLog.getCycleTimestampMicros());
+    }
+
+    /**
+     * Reads a double recorded for the current replay cycle.
+     *
+     * @param key Field name
+     * @param defaultValue Value to return if the key was never recorded
+     * @return Recorded value
+     */
+    public double get(String key, double defaultValue) {
+        ReplaySource.Channel channel = m_channels.get(key);
+        if (channel == null) {
+            channel = m_replay.getChannel(m_prefix + key);
+            m_channels.put(key, channel);
+        }
+        return channel.get(defaultValue);
+    }
+
+    /**
+     * Reads a boolean recorded for the current replay cycle.
+     *
+     * @param key Field name
+     * @param defaultValue Value to return if the key was never recorded
+     * @return Recorded value
+     */
+    public boolean get(String key, boolean defaultValue) {
+        return get(key, defaultValue ? 1.0 : 0.0) != 0.0;
+    }
+}
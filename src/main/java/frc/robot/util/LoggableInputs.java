@@ -0,0 +1,24 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+/**
+ * A set of subsystem inputs that is recorded every cycle and can be restored from a log for replay.
+ */
+public interface LoggableInputs {
+    /**
+     * Writes every field to the table.
+     *
+     * @param table Table to write to
+     */
+    void toLog(LogTable table);
+
+    /**
+     * Reads every field back from the table.
+     *
+     * @param table Table to read from
+     */
+    void fromLog(LogTable table);
+}
@@ -0,0 +1,87 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.epilogue.EpilogueConfiguration;
+import edu.wpi.first.epilogue.Logged.Importance;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.robot.Constants.LoggingConstants;
+
+/**
+ * Runs Epilogue logging each loop within a fixed time budget.
+ *
+ * <p>Update rate follows importance: CRITICAL and INFO fields are logged every loop, DEBUG fields
+ * every {@link LoggingConstants#kDebugLogDivisor} loops. Each update is timed; if it goes over
+ * {@link LoggingConstants#kLoggingBudgetSeconds}, the lowest importance level still being logged is
+ * shed. After a long enough stretch comfortably under budget, it is restored.
+ */
+public class LoggingBudget {
+    private static final Importance[] kLevels = {Importance.DEBUG, Importance.INFO, Importance.CRITICAL};
+    private static final long kBudgetMicros = (long) (LoggingConstants.kLoggingBudgetSeconds * 1e6);
+
+    private final EpilogueConfiguration m_config;
+    private final Runnable m_update;
+    private int m_floorLevel = 0;
+    private int m_loop = 0;
+    private int m_loopsUnderBudget = 0;
+    private long m_lastMicros;
+    private long m_sheds;
+
+    /**
+     * Creates a logging budget.
+     *
+     * @param config The Epilogue configuration whose minimum importance is adjusted
+     * @param update Runs one Epilogue update, e.g. {@code () -> Epilogue.update(robot)}
+     */
+    public LoggingBudget(EpilogueConfiguration config, Runnable update) {
+        m_config = config;
+        m_update = update;
+    }
+
+    /** Logs one loop's worth of data. Call once per loop from the main thread. */
+    public void run() {
+        int level = m_floorLevel;
+        if (level == 0 && m_loop % LoggingConstants.kDebugLogDivisor != 0) {
+            level = 1; // Skip DEBUG on this loop
+        }
+        m_config.minimumImportance = kLevels[level];
+        m_loop++;
+
+        long start = RobotController.getFPGATime();
+        m_update.run();
+        m_lastMicros = RobotController.getFPGATime() - start;
+
+        if (m_lastMicros > kBudgetMicros) {
+            m_loopsUnderBudget = 0;
+            if (m_floorLevel < kLevels.length - 1) {
+                m_floorLevel++;
+                m_sheds++;
+                System.err.println("WARNING: Logging over budget, now logging " + kLevels[m_floorLevel] + " and above");
+            }
+        } else if (m_lastMicros < kBudgetMicros / 2) {
+            if (++m_loopsUnderBudget >= LoggingConstants.kRestoreAfterLoops && m_floorLevel > 0) {
+                m_floorLevel--;
+                m_loopsUnderBudget = 0;
+            }
+        } else {
+            m_loopsUnderBudget = 0;
+        }
+    }
+
+    /** @return Lowest importance level currently being logged */
+    public Importance getMinimumImportance() {
+        return kLevels[m_floorLevel];
+    }
+
+    /** @return Duration of the last Epilogue update, in milliseconds */
+    public double getLastUpdateMillis() {
+        return m_lastMicros / 1000.0;
+    }
+
+    /** @return Number of times an importance level was shed */
+    public long getShedCount() {
+        return m_sheds;
+    }
+}
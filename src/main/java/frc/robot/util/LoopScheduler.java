@@ -0,0 +1,156 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import frc.robot.Constants.LoopConstants;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs periodic work at different rates than the main 20 ms loop.
+ *
+ * <p>Each {@link Rate} is one {@link TimedRobot#addPeriodic(Runnable, double, double)} callback with
+ * its own phase offset. Every task registered at that rate runs inside it, in registration order.
+ * The group is timed against its budget; overruns are counted and published. Telemetry is sheddable:
+ * after an overrun its next run is skipped, so slow dashboard work can't keep crowding out the
+ * faster groups.
+ *
+ * <p>All groups run on the main robot thread, between iterations of the main loop, so they spread
+ * work out in time rather than preempt it. Control stays in the main loop: sensors are read in
+ * subsystem periodic() and outputs written by commands, at the 50 Hz the control signals update.
+ *
+ * <p>The callbacks are fired by TimedRobot's own loop, which replay does not run; replay calls
+ * {@link #runDue()} after each cycle instead so the same tasks run on the recorded timeline.
+ */
+public class LoopScheduler {
+    /** Rate groups, see {@link LoopConstants}. */
+    public enum Rate {
+        /** Sensor polling at the control signal rate (50 Hz). */
+        SENSING(LoopConstants.kSensingPeriodSeconds, LoopConstants.kSensingOffsetSeconds,
+                LoopConstants.kSensingBudgetSeconds, false),
+        /** Dashboards and diagnostics (10 Hz). */
+        TELEMETRY(LoopConstants.kTelemetryPeriodSeconds, LoopConstants.kTelemetryOffsetSeconds,
+                LoopConstants.kTelemetryBudgetSeconds, true);
+
+        private final double m_periodSeconds;
+        private final double m_offsetSeconds;
+        private final long m_budgetMicros;
+        private final boolean m_sheddable;
+
+        Rate(double periodSeconds, double offsetSeconds, double budgetSeconds, boolean sheddable) {
+            m_periodSeconds = periodSeconds;
+            m_offsetSeconds = offsetSeconds;
+            m_budgetMicros = (long) (budgetSeconds * 1e6);
+            m_sheddable = sheddable;
+        }
+    }
+
+    private static final class Group {
+        private final Rate m_rate;
+        // Dashboard keys, built once so publishing doesn't concatenate strings
+        private final String m_lastKey;
+        private final String m_maxKey;
+        private final String m_overrunsKey;
+        private final String m_skippedKey;
+        private final List<Runnable> m_tasks = new ArrayList<>();
+        private long m_lastMicros;
+        private long m_maxMicros;
+        private long m_overruns;
+        private long m_skipped;
+        private boolean m_skipNext;
+        private double m_nextRunSeconds;
+
+        private Group(Rate rate) {
+            m_rate = rate;
+            String prefix = "Loop/" + rate.name() + "/";
+            m_lastKey = prefix + "Last (ms)";
+            m_maxKey = prefix + "Max (ms)";
+            m_overrunsKey = prefix + "Overruns";
+            m_skippedKey = prefix + "Skipped";
+            m_nextRunSeconds = Timer.getFPGATimestamp() + rate.m_offsetSeconds + rate.m_periodSeconds;
+        }
+
+        private void run() {
+            if (m_skipNext) {
+                m_skipNext = false;
+                m_skipped++;
+                return;
+            }
+
+            long start = RobotController.getFPGATime();
+            for (int i = 0; i < m_tasks.size(); i++) {
+                m_tasks.get(i).run();
+            }
+            m_lastMicros = RobotController.getFPGATime() - start;
+            m_maxMicros = Math.max(m_maxMicros, m_lastMicros);
+
+            if (m_lastMicros > m_rate.m_budgetMicros) {
+                m_overruns++;
+                m_skipNext = m_rate.m_sheddable;
+            }
+        }
+    }
+
+    private final TimedRobot m_robot;
+    private final Map<Rate, Group> m_groups = new EnumMap<>(Rate.class);
+
+    /**
+     * Creates a scheduler for the given robot.
+     *
+     * @param robot The robot whose addPeriodic() callbacks are used
+     */
+    public LoopScheduler(TimedRobot robot) {
+        m_robot = robot;
+        schedule(Rate.TELEMETRY, this::publishTelemetry);
+    }
+
+    /**
+     * Registers a task to run at the given rate.
+     *
+     * @param rate Rate group to run in
+     * @param task Work to run; must not block
+     */
+    public void schedule(Rate rate, Runnable task) {
+        Group group = m_groups.get(rate);
+        if (group == null) {
+            group = new Group(rate);
+            m_groups.put(rate, group);
+            m_robot.addPeriodic(group::run, rate.m_periodSeconds, rate.m_offsetSeconds);
+        }
+        group.m_tasks.add(task);
+    }
+
+    /**
+     * Runs every group whose next period has started, the way TimedRobot would have. Only for
+     * loops that call loopFunc() directly (replay); on the robot the addPeriodic() callbacks do this.
+     * Like TimedRobot, a group that fell more than a period behind runs once and skips the rest.
+     */
+    public void runDue() {
+        double now = Timer.getFPGATimestamp();
+        for (Group group : m_groups.values()) {
+            if (now < group.m_nextRunSeconds) {
+                continue;
+            }
+            group.run();
+            double period = group.m_rate.m_periodSeconds;
+            group.m_nextRunSeconds += Math.floor((now - group.m_nextRunSeconds) / period + 1) * period;
+        }
+    }
+
+    private void publishTelemetry() {
+        for (Group group : m_groups.values()) {
+            SmartDashboard.putNumber(group.m_lastKey, group.m_lastMicros / 1000.0);
+            SmartDashboard.putNumber(group.m_maxKey, group.m_maxMicros / 1000.0);
+            SmartDashboard.putNumber(group.m_overrunsKey, group.m_overruns);
+            SmartDashboard.putNumber(group.m_skippedKey, group.m_skipped);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inputs recorded by {@link InputLog}, loaded from a WPILOG file and indexed by cycle.
+ *
+ * <p>The whole log is read once up front into one array per input, so stepping through cycles
+ * during replay is just an index change.
+ */
+public class ReplaySource {
+    /** The recorded values of one input. */
+    public final class Channel {
+        private final double[] m_values;
+
+        private Channel(double[] values) {
+            m_values = values;
+        }
+
+        /**
+         * Gets the value recorded for the current cycle.
+         *
+         * @param defaultValue Value to return if this input was never recorded
+         * @return Recorded value
+         */
+        public double get(double defaultValue) {
+            if (m_values == null || Double.isNaN(m_values[m_cycle])) {
+                return defaultValue;
+            }
+            return m_values[m_cycle];
+        }
+    }
+
+    private final long[] m_cycleTimestamps;
+    private final Map<String, double[]> m_values = new HashMap<>();
+    private int m_cycle = 0;
+
+    /**
+     * Loads a log recorded on the robot.
+     *
+     * @param path Path to the .wpilog file
+     * @throws IOException if the file can't be read or is not a WPILOG file
+     */
+    public ReplaySource(String path) throws IOException {
+        DataLogReader reader = new DataLogReader(path);
+        if (!reader.isValid()) {
+            throw new IOException("Not a valid WPILOG file: " + path);
+        }
+
+        // First pass: cycle timestamps
+        Map<Integer, String> names = new HashMap<>();
+        List<Long> timestamps = new ArrayList<>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                names.put(record.getStartData().entry, record.getStartData().name);
+            } else if (!record.isControl() && InputLog.kTimestampEntry.equals(names.get(record.getEntry()))) {
+                timestamps.add(record.getTimestamp());
+            }
+        }
+        if (timestamps.isEmpty()) {
+            throw new IOException("Log has no recorded inputs (" + InputLog.kTimestampEntry + "): " + path);
+        }
+        m_cycleTimestamps = new long[timestamps.size()];
+        Map<Long, Integer> cycleIndex = new HashMap<>();
+        for (int i = 0; i < m_cycleTimestamps.length; i++) {
+            m_cycleTimestamps[i] = timestamps.get(i);
+            cycleIndex.put(m_cycleTimestamps[i], i);
+        }
+
+        // Second pass: every double/boolean input, placed at the cycle it was recorded in
+        Map<Integer, String> types = new HashMap<>();
+        names.clear();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                names.put(record.getStartData().entry, record.getStartData().name);
+                types.put(record.getStartData().entry, record.getStartData().type);
+                continue;
+            }
+            if (record.isControl()) {
+                continue;
+            }
+            String name = names.get(record.getEntry());
+            Integer cycle = cycleIndex.get(record.getTimestamp());
+            if (name == null || cycle == null || !name.startsWith(InputLog.kPrefix)) {
+                continue;
+            }
+
+            String type = types.get(record.getEntry());
+            double value;
+            if ("double".equals(type)) {
+                value = record.getDouble();
+            } else if ("boolean".equals(type)) {
+                value = record.getBoolean() ? 1.0 : 0.0;
+            } else {
+                continue;
+            }
+
+            double[] values = m_values.get(name);
+            if (values == null) {
+                values = new double[m_cycleTimestamps.length];
+                Arrays.fill(values, Double.NaN);
+                m_values.put(name, values);
+            }
+            values[cycle] = value;
+        }
+
+        // An input missing from a cycle keeps its previous value
+        for (double[] values : m_values.values()) {
+            for (int i = 1; i < values.length; i++) {
+                if (Double.isNaN(values[i])) {
+                    values[i] = values[i - 1];
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the recorded values of an input.
+     *
+     * @param name Full entry name, e.g. "/RealInputs/Drive/LeftPositionRotations"
+     * @return Channel for the input; returns defaults if it was never recorded
+     */
+    public Channel getChannel(String name) {
+        return new Channel(m_values.get(name));
+    }
+
+    /** @return Number of recorded cycles */
+    public int getCycleCount() {
+        return m_cycleTimestamps.length;
+    }
+
+    /**
+     * Moves to a cycle.
+     *
+     * @param cycle Cycle index, 0 to {@link #getCycleCount()} - 1
+     */
+    public void setCycle(int cycle) {
+        m_cycle = cycle;
+    }
+
+    /** @return Recorded timestamp of the current cycle, in FPGA microseconds */
+    public long getCycleTimestampMicros() {
+        return m_cycleTimestamps[m_cycle];
+    }
+}
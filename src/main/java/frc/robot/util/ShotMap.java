@@ -0,0 +1,178 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Shooting solutions by distance to the goal: flywheel velocity and, optionally, feeder output.
+ *
+ * <p>Points are kept in sorted primitive arrays; lookups binary-search them and interpolate
+ * linearly, clamping outside the measured range. Lookups don't allocate, so they can run every
+ * loop.
+ *
+ * <p>The table is loaded from a JSON file:
+ * <pre>
+ * {"points": [
+ *   {"distanceMeters": 1.0, "velocityRPS": -24.0, "feederPercent": -0.25},
+ *   ...
+ * ]}
+ * </pre>
+ * {@code feederPercent} is optional, but must be given for every point or none. Call
+ * {@link #reloadIfChanged()} periodically to pick up edits to the file (e.g. a new deploy) without
+ * restarting robot code. A file that fails to load is reported and the previous table is kept.
+ */
+public class ShotMap {
+    /** One immutable version of the table, swapped whole on reload. */
+    private static final class Table {
+        private final double[] m_distances;
+        private final double[] m_velocities;
+        private final double[] m_feederPercents; // null when the file has no feeder column
+
+        private Table(double[] distances, double[] velocities, double[] feederPercents) {
+            m_distances = distances;
+            m_velocities = velocities;
+            m_feederPercents = feederPercents;
+        }
+    }
+
+    private final File m_file;
+    private Table m_table;
+    private long m_lastModified = Long.MIN_VALUE;
+
+    /**
+     * Creates a shot map backed by a JSON file and loads it.
+     *
+     * @param file JSON file to load
+     * @param fallbackVelocityRPS Velocity used at every distance if the file never loads
+     */
+    public ShotMap(File file, double fallbackVelocityRPS) {
+        m_file = file;
+        m_table = new Table(new double[] {0.0}, new double[] {fallbackVelocityRPS}, null);
+        reloadIfChanged();
+    }
+
+    /**
+     * Reloads the table if the file's modification time changed since the last load. Does file I/O;
+     * run it from a slow periodic task, not from control code.
+     *
+     * @return True if a new table was loaded
+     */
+    public boolean reloadIfChanged() {
+        long modified = m_file.lastModified();
+        if (modified == m_lastModified) {
+            return false;
+        }
+        m_lastModified = modified;
+
+        if (modified == 0L) {
+            System.err.println("WARNING: Shot map " + m_file + " not found, keeping previous table");
+            return false;
+        }
+
+        try {
+            m_table = parse(m_file);
+            System.err.println("INFO: Loaded shot map " + m_file + " (" + m_table.m_distances.length + " points)");
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("WARNING: Could not load shot map " + m_file + ", keeping previous table: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    private static Table parse(File file) throws IOException {
+        JsonNode points = new ObjectMapper().readTree(file).path("points");
+        int count = points.size();
+        if (!points.isArray() || count == 0) {
+            throw new IllegalArgumentException("\"points\" must be a non-empty array");
+        }
+
+        // Sort by distance first so the file can list points in any order
+        JsonNode[] sorted = new JsonNode[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = points.get(i);
+        }
+        Arrays.sort(sorted, (a, b) -> Double.compare(a.path("distanceMeters").asDouble(), b.path("distanceMeters").asDouble()));
+
+        boolean hasFeeder = sorted[0].has("feederPercent");
+        double[] distances = new double[count];
+        double[] velocities = new double[count];
+        double[] feederPercents = hasFeeder ? new double[count] : null;
+        for (int i = 0; i < count; i++) {
+            JsonNode point = sorted[i];
+            if (!point.path("distanceMeters").isNumber() || !point.path("velocityRPS").isNumber()) {
+                throw new IllegalArgumentException("every point needs numeric distanceMeters and velocityRPS");
+            }
+            if (point.has("feederPercent") != hasFeeder) {
+                throw new IllegalArgumentException("feederPercent must be given for every point or none");
+            }
+            distances[i] = point.get("distanceMeters").asDouble();
+            velocities[i] = point.get("velocityRPS").asDouble();
+            if (hasFeeder) {
+                feederPercents[i] = point.get("feederPercent").asDouble();
+            }
+            if (i > 0 && distances[i] == distances[i - 1]) {
+                throw new IllegalArgumentException("duplicate distance " + distances[i]);
+            }
+        }
+        return new Table(distances, velocities, feederPercents);
+    }
+
+    /**
+     * Flywheel velocity for a shot from the given distance.
+     *
+     * @param distanceMeters Distance to the goal
+     * @return Flywheel velocity in rotations per second
+     */
+    public double getVelocityRPS(double distanceMeters) {
+        Table table = m_table;
+        return interpolate(table.m_distances, table.m_velocities, distanceMeters);
+    }
+
+    /**
+     * Feeder output for a shot from the given distance.
+     *
+     * @param distanceMeters Distance to the goal
+     * @param defaultPercent Output to use when the table has no feeder column
+     * @return Feeder percent output
+     */
+    public double getFeederPercent(double distanceMeters, double defaultPercent) {
+        Table table = m_table;
+        if (table.m_feederPercents == null) {
+            return defaultPercent;
+        }
+        return interpolate(table.m_distances, table.m_feederPercents, distanceMeters);
+    }
+
+    private static double interpolate(double[] xs, double[] ys, double x) {
+        int last = xs.length - 1;
+        if (!(x > xs[0])) {
+            // Also catches NaN: fall back to the closest measured shot
+            return ys[0];
+        }
+        if (x >= xs[last]) {
+            return ys[last];
+        }
+
+        // Largest index whose distance is <= x
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (xs[mid] <= x) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        double t = (x - xs[low]) / (xs[high] - xs[low]);
+        return ys[low] + t * (ys[high] - ys[low]);
+    }
+}
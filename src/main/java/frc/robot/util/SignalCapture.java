@@ -0,0 +1,161 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.StatusCode;
+import com.ctre.phoenix6.StatusSignal;
+import com.ctre.phoenix6.Utils;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Short bursts of high-rate status signal capture, e.g. the flywheel around a shot.
+ *
+ * <p>{@link #start()} and {@link #stop()} only flip a flag; everything that talks to the bus or
+ * the log happens on a background thread, so the robot loop never blocks on it. Once started, the
+ * thread raises the signals' update rates to the capture rate, waits on each new frame and copies
+ * the values into a preallocated primitive buffer. The buffer is written to the log (as
+ * "prefix/signal name", with the frames' own timestamps moved from Phoenix's clock onto the FPGA
+ * clock the rest of the log uses) when it fills and when capture stops. On stop the thread puts the
+ * signals back to the rates they had before, so the extra bus load only lasts as long as the
+ * capture.
+ *
+ * <p>The signals are cloned: the robot loop keeps refreshing its own copies, and status signal
+ * objects are not safe to share between threads.
+ */
+public class SignalCapture {
+    // Long enough to notice a stop request promptly when frames stop arriving
+    private static final double kWaitSeconds = 0.05;
+
+    private final String m_name;
+    private final double m_captureHz;
+    private final BaseStatusSignal[] m_signals;
+    private final double[] m_normalHz;
+    private final DoubleLogEntry[] m_entries;
+    private final long[] m_timestamps;
+    private final double[] m_values;
+    private int m_size = 0;
+    private volatile boolean m_active = false;
+
+    /**
+     * Creates a capture and its (idle) background thread.
+     *
+     * @param name Thread name and log prefix, e.g. "ShooterCapture"
+     * @param log Log the samples are written to
+     * @param captureHz Update rate while capturing
+     * @param capacity Samples buffered before they are written to the log
+     * @param signals Signals to capture; all sampled together
+     */
+    public SignalCapture(String name, DataLog log, double captureHz, int capacity, StatusSignal<?>... signals) {
+        m_name = name;
+        m_captureHz = captureHz;
+        m_signals = new BaseStatusSignal[signals.length];
+        m_normalHz = new double[signals.length];
+        m_entries = new DoubleLogEntry[signals.length];
+        for (int i = 0; i < signals.length; i++) {
+            m_signals[i] = signals[i].clone();
+            m_entries[i] = new DoubleLogEntry(log, name + "/" + signals[i].getName());
+        }
+        m_timestamps = new long[capacity];
+        m_values = new double[capacity * signals.length];
+
+        Thread thread = new Thread(this::run, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Starts recording. Does nothing if already capturing. Does not block. */
+    public synchronized void start() {
+        if (m_active) {
+            return;
+        }
+        m_active = true;
+        notifyAll();
+    }
+
+    /**
+     * Stops recording. The signal rates are restored and the rest of the buffer is logged in the
+     * background. Does not block.
+     */
+    public synchronized void stop() {
+        m_active = false;
+    }
+
+    /**
+     * Whether a capture is running.
+     *
+     * @return True between start() and stop()
+     */
+    public boolean isActive() {
+        return m_active;
+    }
+
+    private void run() {
+        while (true) {
+            synchronized (this) {
+                while (!m_active) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+
+            raiseRates();
+            while (m_active) {
+                if (BaseStatusSignal.waitForAll(kWaitSeconds, m_signals).isOK()) {
+                    record();
+                }
+            }
+            restoreRates();
+            flush();
+        }
+    }
+
+    private void raiseRates() {
+        for (int i = 0; i < m_signals.length; i++) {
+            m_normalHz[i] = m_signals[i].getAppliedUpdateFrequency();
+        }
+        StatusCode status = BaseStatusSignal.setUpdateFrequencyForAll(m_captureHz, m_signals);
+        if (!status.isOK()) {
+            System.err.println("WARNING: " + m_name + " could not raise signal rates: " + status);
+        }
+    }
+
+    private void restoreRates() {
+        for (int i = 0; i < m_signals.length; i++) {
+            // A rate of 0 (signal was off) turns it back off
+            m_signals[i].setUpdateFrequency(m_normalHz[i]);
+        }
+    }
+
+    private void record() {
+        if (m_size == m_timestamps.length) {
+            flush();
+        }
+        // Frame timestamps are on Phoenix's clock; shift them onto the FPGA clock the log uses
+        double phoenixToFpga = Timer.getFPGATimestamp() - Utils.getCurrentTimeSeconds();
+        double received = m_signals[0].getAllTimestamps().getSystemTimestamp().getTime();
+        m_timestamps[m_size] = (long) ((received + phoenixToFpga) * 1e6);
+        int offset = m_size * m_signals.length;
+        for (int i = 0; i < m_signals.length; i++) {
+            m_values[offset + i] = m_signals[i].getValueAsDouble();
+        }
+        m_size++;
+    }
+
+    private void flush() {
+        for (int sample = 0; sample < m_size; sample++) {
+            int offset = sample * m_signals.length;
+            for (int i = 0; i < m_signals.length; i++) {
+                m_entries[i].append(m_values[offset + i], m_timestamps[sample]);
+            }
+        }
+        m_size = 0;
+    }
+}
@@ -0,0 +1,98 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * Sequences an active stop for one mechanism: a short closed-loop phase that brings it to rest,
+ * then neutral with no further control frames.
+ *
+ * <p>The owning subsystem calls {@link #start()} when a command ends, runs its own control law
+ * while {@link #update(double)} returns true, and puts the motor in neutral the one time it returns
+ * false. The stop is over once the speed is within tolerance, or after a timeout so a stuck sensor
+ * can't keep the motor energized. Neutral mode (brake or coast, configured per motor) holds it from
+ * there. While {@link #isEngaged()}, zero-output requests from idle commands are redundant and
+ * should not be sent; the first non-zero request calls {@link #cancel()}.
+ */
+public class StopController {
+    private static final int kIdle = 0;
+    private static final int kStopping = 1;
+    private static final int kNeutral = 2;
+
+    private final double m_tolerance;
+    private final double m_timeoutSeconds;
+    private int m_state = kIdle;
+    private double m_startTime;
+
+    /**
+     * Creates a stop controller.
+     *
+     * @param tolerance Speed at or below which the mechanism counts as stopped, in the units passed to
+     *     {@link #update(double)}
+     * @param timeoutSeconds Longest the closed-loop phase may run
+     */
+    public StopController(double tolerance, double timeoutSeconds) {
+        m_tolerance = tolerance;
+        m_timeoutSeconds = timeoutSeconds;
+    }
+
+    /** Starts the closed-loop phase. Does nothing if a stop is already engaged. */
+    public void start() {
+        if (m_state != kIdle) {
+            return;
+        }
+        m_state = kStopping;
+        m_startTime = Timer.getFPGATimestamp();
+    }
+
+    /**
+     * Skips the closed-loop phase, e.g. when the robot is disabled and outputs are cut anyway. The
+     * caller puts the motor in neutral itself.
+     */
+    public void goNeutral() {
+        m_state = kNeutral;
+    }
+
+    /** Ends the stop so normal requests go through again. */
+    public void cancel() {
+        m_state = kIdle;
+    }
+
+    /**
+     * Advances the stop. Call once per loop while {@link #isStopping()}.
+     *
+     * @param speed Current speed of the mechanism (magnitude is what counts)
+     * @return True to keep driving towards zero; false once the motor should go neutral
+     */
+    public boolean update(double speed) {
+        if (m_state != kStopping) {
+            return false;
+        }
+        if (Math.abs(speed) <= m_tolerance || Timer.getFPGATimestamp() - m_startTime >= m_timeoutSeconds) {
+            m_state = kNeutral;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether the closed-loop phase is running.
+     *
+     * @return True between {@link #start()} and reaching tolerance or timing out
+     */
+    public boolean isStopping() {
+        return m_state == kStopping;
+    }
+
+    /**
+     * Whether a stop owns the motor, in the closed-loop phase or in neutral.
+     *
+     * @return True until {@link #cancel()}
+     */
+    public boolean isEngaged() {
+        return m_state != kIdle;
+    }
+}
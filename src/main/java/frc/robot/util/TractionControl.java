@@ -0,0 +1,203 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.TimedRobot;
+import frc.robot.Constants.DriveConstants;
+
+/**
+ * Wheel-slip detection and torque limiting for a differential drive.
+ *
+ * <p>Each loop the wheels' speed and acceleration (from the encoders) are compared with the chassis
+ * acceleration measured by the accelerometer. When the wheels, on average, accelerate faster than
+ * the chassis by more than {@link DriveConstants#kSlipAccelMarginMetersPerSecondSquared}, or their
+ * speed runs away from the chassis speed estimate by more than
+ * {@link DriveConstants#kSlipVelocityMetersPerSecond}, the side(s) responsible are flagged. A side
+ * flagged for {@link DriveConstants#kSlipDetectCycles} loops in a row is slipping.
+ *
+ * <p>Torque is limited through the duty cycle: a side may only be driven within a "headroom" of the
+ * duty cycle that matches the chassis speed, since the duty cycle above back-EMF is what produces
+ * current and so torque. The headroom starts at the grip limit of the model (friction coefficient
+ * times half the robot's weight per side, through the motor model), is cut when the side slips and
+ * recovers gradually once it grips again.
+ *
+ * <p>There is no gyro, so only the common-mode (forward) motion is checked: the accelerometer can't
+ * see the sides accelerating in opposite directions during a turn.
+ */
+public class TractionControl {
+    private static final double kGravity = 9.81;
+
+    /** State for one side of the drive. */
+    private static final class Side {
+        private final LinearFilter m_accelFilter = LinearFilter.singlePoleIIR(
+                DriveConstants.kAccelFilterSeconds, TimedRobot.kDefaultPeriod);
+        private double m_velocity = 0.0;
+        private double m_accel = 0.0;
+        private int m_flaggedCycles = 0;
+        private double m_headroom;
+        private double m_lastDutyCycle = 0.0;
+
+        private void update(double velocity, double dt) {
+            m_accel = m_accelFilter.calculate((velocity - m_velocity) / dt);
+            m_velocity = velocity;
+        }
+
+        private boolean isSlipping() {
+            return m_flaggedCycles >= DriveConstants.kSlipDetectCycles;
+        }
+
+        private void reset(double headroom) {
+            m_flaggedCycles = 0;
+            m_headroom = headroom;
+        }
+    }
+
+    private final Side m_left = new Side();
+    private final Side m_right = new Side();
+    private final LinearFilter m_chassisAccelFilter = LinearFilter.singlePoleIIR(
+            DriveConstants.kAccelFilterSeconds, TimedRobot.kDefaultPeriod);
+    private final double m_gripHeadroom;
+    private double m_chassisVelocity = 0.0;
+    private double m_chassisAccel = 0.0;
+
+    /**
+     * Creates traction control for a drive with one motor of the given type per side.
+     *
+     * @param motor Motor on each side
+     * @param massKg Robot mass
+     * @param wheelCof Wheel coefficient of friction
+     */
+    public TractionControl(DCMotor motor, double massKg, double wheelCof) {
+        // Duty cycle above back-EMF that drives the grip-limited force through a stalled motor
+        double sideForceNewtons = wheelCof * massKg * kGravity / 2.0;
+        double motorTorqueNm = sideForceNewtons * DriveConstants.kTalonFXRotationsToMeters / (2.0 * Math.PI);
+        // Capped at the full duty range either side of the speed, where the limit no longer acts
+        m_gripHeadroom = MathUtil.clamp(motor.getCurrent(motorTorqueNm) * motor.rOhms / motor.nominalVoltageVolts,
+                DriveConstants.kMinTractionHeadroom, 2.0);
+        m_left.reset(m_gripHeadroom);
+        m_right.reset(m_gripHeadroom);
+    }
+
+    /**
+     * Updates slip detection. Call once per loop, after the inputs are read.
+     *
+     * @param leftMetersPerSecond Left wheel surface speed from the encoder
+     * @param rightMetersPerSecond Right wheel surface speed from the encoder
+     * @param chassisAccelMetersPerSecondSquared Forward chassis acceleration from the accelerometer
+     */
+    public void update(double leftMetersPerSecond, double rightMetersPerSecond,
+            double chassisAccelMetersPerSecondSquared) {
+        double dt = TimedRobot.kDefaultPeriod;
+        m_left.update(leftMetersPerSecond, dt);
+        m_right.update(rightMetersPerSecond, dt);
+        m_chassisAccel = m_chassisAccelFilter.calculate(chassisAccelMetersPerSecondSquared);
+
+        // Predict with the accelerometer; the encoders correct it below while the wheels grip
+        m_chassisVelocity += m_chassisAccel * dt;
+
+        double wheelVelocity = (m_left.m_velocity + m_right.m_velocity) / 2.0;
+        double accelExcess = (m_left.m_accel + m_right.m_accel) / 2.0 - m_chassisAccel;
+        double velocityExcess = wheelVelocity - m_chassisVelocity;
+        boolean accelSlip = Math.abs(accelExcess) > DriveConstants.kSlipAccelMarginMetersPerSecondSquared;
+        boolean velocitySlip = Math.abs(velocityExcess) > DriveConstants.kSlipVelocityMetersPerSecond;
+
+        // Blame the side(s) that moved further in the direction of the excess
+        updateSide(m_left, m_right, accelSlip, accelExcess, velocitySlip, velocityExcess, dt);
+        updateSide(m_right, m_left, accelSlip, accelExcess, velocitySlip, velocityExcess, dt);
+
+        if (!m_left.isSlipping() && !m_right.isSlipping() && !accelSlip && !velocitySlip) {
+            m_chassisVelocity = wheelVelocity;
+        }
+    }
+
+    private void updateSide(Side side, Side other, boolean accelSlip, double accelExcess,
+            boolean velocitySlip, double velocityExcess, double dt) {
+        boolean flagged = (accelSlip && (side.m_accel - other.m_accel) * Math.signum(accelExcess) >= 0)
+                || (velocitySlip && (side.m_velocity - other.m_velocity) * Math.signum(velocityExcess) >= 0);
+        side.m_flaggedCycles = flagged ? side.m_flaggedCycles + 1 : 0;
+
+        if (side.isSlipping()) {
+            // Back off to a fraction of the torque that broke the wheel loose
+            double excessDuty = Math.abs(side.m_lastDutyCycle - getSpeedDutyCycle());
+            side.m_headroom = Math.max(DriveConstants.kMinTractionHeadroom,
+                    Math.min(side.m_headroom, excessDuty * DriveConstants.kSlipTorqueScale));
+        } else {
+            side.m_headroom = Math.min(m_gripHeadroom,
+                    side.m_headroom + DriveConstants.kTractionRecoveryPerSecond * dt);
+        }
+    }
+
+    private double getSpeedDutyCycle() {
+        return m_chassisVelocity / DriveConstants.kMaxSpeedMetersPerSecond;
+    }
+
+    /**
+     * Limits a left-side duty cycle to the torque the wheel can put down.
+     *
+     * @param dutyCycle Requested duty cycle
+     * @return Duty cycle to apply
+     */
+    public double limitLeft(double dutyCycle) {
+        return limit(m_left, dutyCycle);
+    }
+
+    /**
+     * Limits a right-side duty cycle to the torque the wheel can put down.
+     *
+     * @param dutyCycle Requested duty cycle
+     * @return Duty cycle to apply
+     */
+    public double limitRight(double dutyCycle) {
+        return limit(m_right, dutyCycle);
+    }
+
+    private double limit(Side side, double dutyCycle) {
+        double speedDutyCycle = getSpeedDutyCycle();
+        side.m_lastDutyCycle = MathUtil.clamp(dutyCycle,
+                speedDutyCycle - side.m_headroom, speedDutyCycle + side.m_headroom);
+        return side.m_lastDutyCycle;
+    }
+
+    /**
+     * Clears slip state and the speed estimate, e.g. when the encoders can't be trusted.
+     *
+     * @param chassisMetersPerSecond Speed to restart the estimate from
+     */
+    public void reset(double chassisMetersPerSecond) {
+        m_chassisVelocity = chassisMetersPerSecond;
+        m_left.reset(m_gripHeadroom);
+        m_right.reset(m_gripHeadroom);
+    }
+
+    /**
+     * Whether the left wheels are slipping.
+     *
+     * @return True while slip is detected
+     */
+    public boolean isLeftSlipping() {
+        return m_left.isSlipping();
+    }
+
+    /**
+     * Whether the right wheels are slipping.
+     *
+     * @return True while slip is detected
+     */
+    public boolean isRightSlipping() {
+        return m_right.isSlipping();
+    }
+
+    /**
+     * Chassis forward speed: the encoders while the wheels grip, the accelerometer while they slip.
+     *
+     * @return Speed in meters per second
+     */
+    public double getChassisMetersPerSecond() {
+        return m_chassisVelocity;
+    }
+}
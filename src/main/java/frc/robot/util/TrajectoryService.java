@@ -0,0 +1,105 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.DifferentialDriveKinematics;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.math.trajectory.TrajectoryConfig;
+import edu.wpi.first.math.trajectory.TrajectoryGenerator;
+import edu.wpi.first.math.trajectory.constraint.DifferentialDriveVoltageConstraint;
+import frc.robot.Constants.TrajectoryConstants;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates drive trajectories on a background thread, so a command can ask for one without
+ * stalling the robot loop.
+ *
+ * <p>Requests return a future right away. Start and goal are snapped to a grid
+ * ({@link TrajectoryConstants#kCacheResolutionMeters}, {@link TrajectoryConstants#kCacheResolutionDegrees})
+ * and the trajectory is generated between the snapped poses, so repeated requests from about the
+ * same place reuse the cached result. The cache keeps the most recently used
+ * {@link TrajectoryConstants#kCacheSize} trajectories.
+ */
+public class TrajectoryService {
+    private final TrajectoryConfig m_config;
+    private final ExecutorService m_worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "TrajectoryService");
+        thread.setDaemon(true);
+        // Below the robot loop, so generation never competes with it for a core
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Only touched from the robot loop thread; the worker only completes futures
+    private final Map<String, CompletableFuture<Trajectory>> m_cache =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<Trajectory>> eldest) {
+                    return size() > TrajectoryConstants.kCacheSize;
+                }
+            };
+
+    /**
+     * Creates a service for the given drive.
+     *
+     * @param kinematics Drive kinematics, for the wheel speed and voltage constraints
+     */
+    public TrajectoryService(DifferentialDriveKinematics kinematics) {
+        SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(
+                TrajectoryConstants.kDriveKS, TrajectoryConstants.kDriveKV, TrajectoryConstants.kDriveKA);
+        m_config = new TrajectoryConfig(
+                TrajectoryConstants.kMaxSpeedMetersPerSecond,
+                TrajectoryConstants.kMaxAccelerationMetersPerSecondSquared)
+                .setKinematics(kinematics)
+                .addConstraint(new DifferentialDriveVoltageConstraint(
+                        feedforward, kinematics, TrajectoryConstants.kMaxVoltage));
+    }
+
+    /**
+     * Requests a trajectory from start to goal. Never blocks: the result is either cached or
+     * generated on the worker thread.
+     *
+     * @param start Current robot pose
+     * @param goal Pose to drive to
+     * @return Future trajectory; poll it with {@link CompletableFuture#getNow(Object)}
+     */
+    public CompletableFuture<Trajectory> request(Pose2d start, Pose2d goal) {
+        Pose2d snappedStart = snap(start);
+        Pose2d snappedGoal = snap(goal);
+        String key = key(snappedStart) + "->" + key(snappedGoal);
+
+        CompletableFuture<Trajectory> future = m_cache.get(key);
+        if (future == null || future.isCompletedExceptionally()) {
+            future = CompletableFuture.supplyAsync(
+                    () -> TrajectoryGenerator.generateTrajectory(snappedStart, List.of(), snappedGoal, m_config),
+                    m_worker);
+            m_cache.put(key, future);
+        }
+        return future;
+    }
+
+    private static Pose2d snap(Pose2d pose) {
+        double meters = TrajectoryConstants.kCacheResolutionMeters;
+        double degrees = TrajectoryConstants.kCacheResolutionDegrees;
+        return new Pose2d(
+                Math.round(pose.getX() / meters) * meters,
+                Math.round(pose.getY() / meters) * meters,
+                Rotation2d.fromDegrees(Math.round(pose.getRotation().getDegrees() / degrees) * degrees));
+    }
+
+    private static String key(Pose2d snapped) {
+        return Math.round(snapped.getX() / TrajectoryConstants.kCacheResolutionMeters) + ","
+                + Math.round(snapped.getY() / TrajectoryConstants.kCacheResolutionMeters) + ","
+                + Math.round(snapped.getRotation().getDegrees() / TrajectoryConstants.kCacheResolutionDegrees);
+    }
+}
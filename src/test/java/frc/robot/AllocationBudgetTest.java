@@ -0,0 +1,315 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.ctre.phoenix6.BaseStatusSignal;
+import com.ctre.phoenix6.hardware.TalonFX;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import frc.robot.commands.ArcadeDriveCommand;
+import frc.robot.subsystems.DriveIO.DriveIOInputs;
+import frc.robot.subsystems.DriveIOSim;
+import frc.robot.subsystems.FeederIO.FeederIOInputs;
+import frc.robot.subsystems.FeederIOSim;
+import frc.robot.subsystems.ShooterIO.ShooterIOInputs;
+import frc.robot.subsystems.ShooterIOSim;
+import frc.robot.util.DeviceHealthMonitor;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Fails the build when a per-loop code path allocates more than its budget.
+ *
+ * <p>Every allocation on the robot loop is future GC work, and GC pauses on the roboRIO show up as
+ * loop overruns. Each path below is run for {@link #kWarmupLoops} loops (so one-time setup such as
+ * lazily created log entries and timeout warnings is excluded), then for {@link #kMeasuredLoops}
+ * loops while the current thread's allocated bytes are counted.
+ *
+ * <p>The robot is built with the physics-model IO so the paths do real work: the flywheel reaches
+ * speed, balls are fed and the wheels move, so traction control runs. The models allocate on their
+ * own (WPILib's state-space sims build matrices every update), so the IO is wrapped to count what
+ * each model update allocates, where it runs, and that is left out; only robot code is budgeted.
+ * Commands that finish are ended and restarted outside the measured part of each loop, so the
+ * measurement keeps covering their execute() rather than their one-time setup.
+ *
+ * <p>The robot loop itself (robotPeriodic() and the loop scheduler's tasks) is measured with the
+ * command scheduler disabled, and the scheduler is run between loops instead. Its watchdog
+ * allocates epoch names every loop, which this code can't change; it is reported but not budgeted.
+ */
+class AllocationBudgetTest {
+    private static final int kWarmupLoops = 2000;
+    private static final int kMeasuredLoops = 5000;
+
+    // Budgets in bytes per loop
+    private static final double kSubsystemBudget = 0.0;
+    private static final double kCommandBudget = 0.0;
+    // ParallelCommandGroup iterates its HashMap of commands, which can allocate an iterator per loop
+    private static final double kAutonomousBudget = 64.0;
+    // Input logging, Driver Station inputs and the Epilogue update
+    private static final double kRobotPeriodicBudget = 0.0;
+    // CanBudget samples the bus every 25 loops and Phoenix returns a new CANBusStatus each time; a
+    // status object of a few dozen bytes averages out to 2-4 bytes/loop, and this allows 4x that
+    private static final double kPeriodicTaskBudget = 16.0;
+    // The health check's Phoenix calls are measured alone and subtracted; escape analysis can treat
+    // the two call sites differently, so allow one small object per check
+    private static final double kPhoenixBaselineMargin = 16.0;
+
+    private static final int kHealthDeviceId = 40;
+
+    private SimHarness m_harness;
+    private com.sun.management.ThreadMXBean m_threads;
+    // Bytes allocated inside the physics models' updates so far
+    private long m_modelBytes = 0;
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM does not report per-thread allocation");
+        m_threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(m_threads.isThreadAllocatedMemorySupported(), "JVM does not report per-thread allocation");
+        m_threads.setThreadAllocatedMemoryEnabled(true);
+
+        m_harness = new SimHarness();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (m_harness != null) {
+            m_harness.close();
+        }
+    }
+
+    private long allocatedBytes() {
+        return m_threads.getCurrentThreadAllocatedBytes();
+    }
+
+    /** Drive physics model that counts what its updates allocate. */
+    private final class CountingDriveIO extends DriveIOSim {
+        @Override
+        public void updateInputs(DriveIOInputs inputs) {
+            long before = allocatedBytes();
+            super.updateInputs(inputs);
+            m_modelBytes += allocatedBytes() - before;
+        }
+    }
+
+    /** Feeder physics model that counts what its updates allocate. */
+    private final class CountingFeederIO extends FeederIOSim {
+        @Override
+        public void updateInputs(FeederIOInputs inputs) {
+            long before = allocatedBytes();
+            super.updateInputs(inputs);
+            m_modelBytes += allocatedBytes() - before;
+        }
+    }
+
+    /** Shooter physics model that counts what its updates allocate. */
+    private final class CountingShooterIO extends ShooterIOSim {
+        @Override
+        public void updateInputs(ShooterIOInputs inputs) {
+            long before = allocatedBytes();
+            super.updateInputs(inputs);
+            m_modelBytes += allocatedBytes() - before;
+        }
+    }
+
+    /** Container on counting physics-model IO. One per test, so only its subsystems are registered. */
+    private RobotContainer newContainer() {
+        return new RobotContainer(m_harness.getInputLog(),
+                new CountingDriveIO(), new CountingFeederIO(), new CountingShooterIO());
+    }
+
+    /**
+     * Runs one loop of a path repeatedly and measures its allocation, less any physics model
+     * updates inside it.
+     *
+     * @param name Name for the report
+     * @param loop One loop's worth of work; only this is measured
+     * @param between Bookkeeping run before each loop and left out of the measurement
+     * @return Bytes allocated per loop
+     */
+    private double measure(String name, Runnable loop, Runnable between) {
+        for (int i = 0; i < kWarmupLoops; i++) {
+            SimHooks.stepTiming(SimHarness.kLoopSeconds);
+            between.run();
+            loop.run();
+        }
+
+        long bytes = 0;
+        long modelBytes = 0;
+        for (int i = 0; i < kMeasuredLoops; i++) {
+            SimHooks.stepTiming(SimHarness.kLoopSeconds);
+            between.run();
+            long modelBefore = m_modelBytes;
+            long before = allocatedBytes();
+            loop.run();
+            bytes += allocatedBytes() - before;
+            modelBytes += m_modelBytes - modelBefore;
+        }
+
+        double bytesPerLoop = (bytes - modelBytes) / (double) kMeasuredLoops;
+        System.out.printf("Allocation: %-32s %8.1f bytes/loop (models %.1f)%n",
+                name, bytesPerLoop, modelBytes / (double) kMeasuredLoops);
+        return bytesPerLoop;
+    }
+
+    private double measure(String name, Runnable loop) {
+        return measure(name, loop, () -> {});
+    }
+
+    private static void assertWithinBudget(String name, double bytesPerLoop, double budget) {
+        assertTrue(bytesPerLoop <= budget,
+                name + " allocates " + bytesPerLoop + " bytes/loop, budget is " + budget);
+    }
+
+    /**
+     * A loop that runs the container's subsystems and the given commands, like the scheduler would
+     * but without its watchdog. Finished commands are ended and restarted between loops.
+     */
+    private static final class CommandPath {
+        private final Subsystem[] m_subsystems;
+        private final Command[] m_commands;
+        private final boolean[] m_finished;
+
+        private CommandPath(RobotContainer container, Command... commands) {
+            m_subsystems = new Subsystem[] {
+                container.getDriveSubsystem(), container.getFeederSubsystem(), container.getShooterSubsystem()};
+            m_commands = commands;
+            m_finished = new boolean[commands.length];
+            for (Command command : commands) {
+                command.initialize();
+            }
+        }
+
+        private void loop() {
+            for (Subsystem subsystem : m_subsystems) {
+                subsystem.periodic();
+            }
+            for (int i = 0; i < m_commands.length; i++) {
+                m_commands[i].execute();
+                m_finished[i] = m_commands[i].isFinished();
+            }
+        }
+
+        private void restartFinished() {
+            for (int i = 0; i < m_commands.length; i++) {
+                if (m_finished[i]) {
+                    m_commands[i].end(false);
+                    m_commands[i].initialize();
+                    m_finished[i] = false;
+                }
+            }
+        }
+    }
+
+    private double measure(String name, CommandPath path) {
+        return measure(name, path::loop, path::restartFinished);
+    }
+
+    @Test
+    void subsystemPeriodicStaysWithinBudget() {
+        RobotContainer container = newContainer();
+        double drive = measure("DriveSubsystem.periodic", container.getDriveSubsystem()::periodic);
+        double feeder = measure("FeederSubsystem.periodic", container.getFeederSubsystem()::periodic);
+        double shooter = measure("ShooterSubsystem.periodic", container.getShooterSubsystem()::periodic);
+
+        assertWithinBudget("DriveSubsystem.periodic", drive, kSubsystemBudget);
+        assertWithinBudget("FeederSubsystem.periodic", feeder, kSubsystemBudget);
+        assertWithinBudget("ShooterSubsystem.periodic", shooter, kSubsystemBudget);
+    }
+
+    @Test
+    void arcadeDriveStaysWithinBudget() {
+        RobotContainer container = newContainer();
+        Command arcade = new ArcadeDriveCommand(container.getDriveSubsystem(), () -> 0.5, () -> 0.2);
+
+        double path = measure("ArcadeDriveCommand", new CommandPath(container, arcade));
+        assertWithinBudget("ArcadeDriveCommand", path, kCommandBudget);
+    }
+
+    @Test
+    void shootCommandStaysWithinBudget() {
+        RobotContainer container = newContainer();
+
+        double path = measure("Shoot", new CommandPath(container, container.startShooter()));
+        assertWithinBudget("Shoot", path, kCommandBudget);
+    }
+
+    @Test
+    void burstFireStaysWithinBudget() {
+        RobotContainer container = newContainer();
+        // The flywheel keeps running while bursts are fed and restarted
+        CommandPath burst = new CommandPath(container, container.startShooter(), container.shoot(3));
+
+        double path = measure("Burst Fire", burst);
+        assertWithinBudget("Burst Fire", path, kCommandBudget);
+    }
+
+    @Test
+    void autonomousStaysWithinBudget() {
+        RobotContainer container = newContainer();
+
+        double path = measure("Autonomous", new CommandPath(container, container.getAutonomousCommand()));
+        assertWithinBudget("Autonomous", path, kAutonomousBudget);
+    }
+
+    @Test
+    void healthMonitorStaysWithinBudget() {
+        // Sim IO registers no devices, so check a simulated TalonFX directly
+        TalonFX motor = new TalonFX(kHealthDeviceId);
+        BaseStatusSignal[] signals = {
+            motor.getPosition(), motor.getDeviceTemp(false), motor.getStickyFaultField(false)};
+        DeviceHealthMonitor monitor = new DeviceHealthMonitor();
+        monitor.register("Allocation Test", motor, signals[0]);
+
+        // The Phoenix calls a check makes, with nothing of ours around them
+        double phoenix = measure("Phoenix signal refresh (baseline)", () -> {
+            BaseStatusSignal.refreshAll(signals);
+            motor.isConnected();
+            signals[0].getTimestamp().getLatency();
+        });
+        double health = measure("DeviceHealthMonitor.periodic", monitor::periodic);
+
+        assertWithinBudget("DeviceHealthMonitor.periodic", health - phoenix,
+                kSubsystemBudget + kPhoenixBaselineMargin);
+    }
+
+    @Test
+    void robotLoopStaysWithinBudget() {
+        Robot robot = new Robot(m_harness.getInputLog());
+        CommandScheduler scheduler = CommandScheduler.getInstance();
+        try {
+            robot.robotInit();
+
+            // Reported only: WPILib's scheduler and watchdog, plus the subsystems and their models
+            measure("CommandScheduler.run", scheduler::run);
+
+            // With the scheduler disabled its run() returns at once, so robotPeriodic() measures only
+            // what the robot adds around it; the scheduler still runs, unmeasured, between loops
+            Runnable runScheduler = () -> {
+                scheduler.enable();
+                scheduler.run();
+                scheduler.disable();
+            };
+            scheduler.disable();
+            double periodic = measure("Robot.robotPeriodic (no scheduler)", robot::robotPeriodic,
+                    runScheduler);
+            double tasks = measure("LoopScheduler tasks", robot::runPeriodicTasks, runScheduler);
+
+            assertWithinBudget("Robot.robotPeriodic", periodic, kRobotPeriodicBudget);
+            assertWithinBudget("LoopScheduler tasks", tasks, kPeriodicTaskBudget);
+        } finally {
+            scheduler.enable();
+            robot.close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.util.InputLog;
+import java.io.ByteArrayOutputStream;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the command scheduler on simulated time, for tests.
+ *
+ * <p>Boots the HAL in simulation, pauses the clock and enables the robot. Each {@link #step()}
+ * advances time by exactly one 20 ms loop and runs the scheduler once, so a test of several
+ * simulated seconds finishes in milliseconds and gives the same result every run. Subsystems
+ * should be built with the physics-model IO (e.g. {@code DriveIOSim}) and {@link #getInputLog()}.
+ *
+ * <p>Create one per test and close it afterwards; closing cancels every command, unregisters
+ * every subsystem and clears button bindings so the next test starts clean.
+ */
+public class SimHarness implements AutoCloseable {
+    /** Simulated time per loop, in seconds. */
+    public static final double kLoopSeconds = TimedRobot.kDefaultPeriod;
+
+    private final InputLog m_inputLog = new InputLog(new DataLogWriter(new ByteArrayOutputStream()), null);
+
+    /** Boots the HAL, pauses and zeroes the clock, and enables the robot. */
+    public SimHarness() {
+        if (!HAL.initialize(500, 0)) {
+            throw new IllegalStateException("HAL failed to initialize");
+        }
+        SimHooks.pauseTiming();
+        SimHooks.restartTiming();
+
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+        CommandScheduler.getInstance().getDefaultButtonLoop().clear();
+
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAutonomous(false);
+        DriverStationSim.setEnabled(true);
+        DriverStationSim.notifyNewData();
+    }
+
+    /**
+     * Input log for subsystems under test. Records to memory only.
+     *
+     * @return Input log in live (not replay) mode
+     */
+    public InputLog getInputLog() {
+        return m_inputLog;
+    }
+
+    /** Advances simulated time by one loop and runs the scheduler, like one robotPeriodic(). */
+    public void step() {
+        SimHooks.stepTiming(kLoopSeconds);
+        m_inputLog.beginCycle();
+        CommandScheduler.getInstance().run();
+    }
+
+    /**
+     * Steps until the condition holds or the timeout passes.
+     *
+     * @param condition Checked after every step
+     * @param timeoutSeconds Simulated time limit
+     * @return True if the condition became true in time
+     */
+    public boolean runUntil(BooleanSupplier condition, double timeoutSeconds) {
+        double start = Timer.getFPGATimestamp();
+        while (!condition.getAsBoolean()) {
+            if (Timer.getFPGATimestamp() - start >= timeoutSeconds) {
+                return false;
+            }
+            step();
+        }
+        return true;
+    }
+
+    /**
+     * Schedules a command and steps until it finishes.
+     *
+     * @param command Command to run
+     * @param timeoutSeconds Simulated time limit
+     * @return Simulated seconds the command ran, or NaN if it was still running at the timeout
+     */
+    public double runCommand(Command command, double timeoutSeconds) {
+        double start = Timer.getFPGATimestamp();
+        command.schedule();
+        if (!runUntil(() -> !command.isScheduled(), timeoutSeconds)) {
+            return Double.NaN;
+        }
+        return Timer.getFPGATimestamp() - start;
+    }
+
+    @Override
+    public void close() {
+        CommandScheduler.getInstance().cancelAll();
+        CommandScheduler.getInstance().unregisterAllSubsystems();
+        CommandScheduler.getInstance().getDefaultButtonLoop().clear();
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+        SimHooks.resumeTiming();
+    }
+}
@@ -0,0 +1,52 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.SimHarness;
+import frc.robot.subsystems.DriveIOSim;
+import frc.robot.subsystems.DriveSubsystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DriveForwardCommandTest {
+    // Stops on the first loop past the target, so allow one loop of travel at drive speed
+    private static final double kMaxOvershootMeters = 0.15;
+    private static final double kTimeoutSeconds = 1.0;
+
+    private SimHarness m_harness;
+    private DriveSubsystem m_drive;
+
+    @BeforeEach
+    void setUp() {
+        m_harness = new SimHarness();
+        m_drive = new DriveSubsystem(new DriveIOSim(), m_harness.getInputLog());
+    }
+
+    @AfterEach
+    void tearDown() {
+        m_harness.close();
+    }
+
+    @Test
+    void stopsWithinToleranceOfTarget() {
+        double seconds = m_harness.runCommand(new DriveForwardCommand(m_drive, 0.5), kTimeoutSeconds);
+
+        assertFalse(Double.isNaN(seconds), "DriveForwardCommand(0.5) did not finish within " + kTimeoutSeconds + " s");
+        double distance = m_drive.getEncoderMeters();
+        assertTrue(distance >= 0.5 && distance <= 0.5 + kMaxOvershootMeters, "drove " + distance + " m");
+    }
+
+    @Test
+    void drivesStraight() {
+        m_harness.runCommand(new DriveForwardCommand(m_drive, 0.5), kTimeoutSeconds);
+
+        // Both sides get the same command and the same model, so any difference is a sign error
+        assertTrue(Math.abs(m_drive.getLeftEncoderMeters() - m_drive.getRightEncoderMeters()) < 1e-9);
+    }
+}
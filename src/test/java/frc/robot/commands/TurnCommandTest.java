@@ -0,0 +1,121 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import frc.robot.Constants.DriveConstants;
+import frc.robot.SimHarness;
+import frc.robot.subsystems.DriveIOSim;
+import frc.robot.subsystems.DriveSubsystem;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TurnCommandTest {
+    // The turn runs at a fixed speed and stops on the first loop past the target, so the angle at
+    // completion can overshoot by up to one loop's worth of turning
+    private static final double kMaxOvershootDegrees = 20.0;
+    private static final double kTimeoutSeconds = 1.0;
+    private static final double kStopTimeoutSeconds = DriveConstants.kStopTimeoutSeconds + SimHarness.kLoopSeconds;
+
+    /** Sim IO that remembers what was last commanded, so tests can check the motors stop. */
+    private static class RecordingDriveIO extends DriveIOSim {
+        private double m_left = Double.NaN;
+        private double m_right = Double.NaN;
+        private boolean m_neutral = false;
+        private int m_dutyCycleCount = 0;
+
+        @Override
+        public void setDutyCycle(double left, double right) {
+            m_left = left;
+            m_right = right;
+            m_neutral = false;
+            m_dutyCycleCount++;
+            super.setDutyCycle(left, right);
+        }
+
+        @Override
+        public void setNeutral() {
+            m_neutral = true;
+            super.setNeutral();
+        }
+    }
+
+    private SimHarness m_harness;
+    private RecordingDriveIO m_io;
+    private DriveSubsystem m_drive;
+
+    @BeforeEach
+    void setUp() {
+        m_harness = new SimHarness();
+        m_io = new RecordingDriveIO();
+        m_drive = new DriveSubsystem(m_io, m_harness.getInputLog());
+    }
+
+    @AfterEach
+    void tearDown() {
+        m_harness.close();
+    }
+
+    private double turnedDegrees() {
+        return Math.toDegrees((m_drive.getLeftEncoderMeters() - m_drive.getRightEncoderMeters())
+                / DriveConstants.kTrackWidthMeters);
+    }
+
+    @Test
+    void turnRightReachesTargetAndStops() {
+        double seconds = m_harness.runCommand(new TurnCommand(m_drive, 90.0), kTimeoutSeconds);
+
+        assertFalse(Double.isNaN(seconds), "TurnCommand(90) did not finish within " + kTimeoutSeconds + " s");
+        double turned = turnedDegrees();
+        assertTrue(turned >= 90.0 && turned <= 90.0 + kMaxOvershootDegrees, "turned " + turned + " degrees");
+
+        // The command hands off to the active stop, which ends in neutral
+        assertTrue(m_harness.runUntil(() -> !m_drive.isStopping(), kStopTimeoutSeconds),
+                "drive still stopping after " + kStopTimeoutSeconds + " s");
+        assertTrue(m_io.m_neutral, "motors not put in neutral after the stop");
+    }
+
+    @Test
+    void zeroRequestsLeaveStopAloneUntilMotorsAreAskedToMove() {
+        m_harness.runCommand(new TurnCommand(m_drive, 90.0), kTimeoutSeconds);
+        m_harness.runUntil(() -> !m_drive.isStopping(), kStopTimeoutSeconds);
+        int sent = m_io.m_dutyCycleCount;
+
+        // An idle default command's zero request would otherwise wake the motors back up
+        m_drive.setMotors(0.0, 0.0);
+        assertEquals(sent, m_io.m_dutyCycleCount);
+        assertTrue(m_io.m_neutral);
+
+        m_drive.setMotors(0.2, 0.2);
+        assertEquals(sent + 1, m_io.m_dutyCycleCount);
+        // Traction control may trim it, but the request goes through
+        assertTrue(m_io.m_left > 0.0 && m_io.m_right > 0.0, "sent " + m_io.m_left + ", " + m_io.m_right);
+
+        // Once cancelled, zero is an ordinary request again
+        m_drive.setMotors(0.0, 0.0);
+        assertEquals(0.0, m_io.m_left);
+        assertEquals(0.0, m_io.m_right);
+    }
+
+    @Test
+    void turnLeftReachesTarget() {
+        double seconds = m_harness.runCommand(new TurnCommand(m_drive, -90.0), kTimeoutSeconds);
+
+        assertFalse(Double.isNaN(seconds), "TurnCommand(-90) did not finish within " + kTimeoutSeconds + " s");
+        double turned = turnedDegrees();
+        assertTrue(turned <= -90.0 && turned >= -90.0 - kMaxOvershootDegrees, "turned " + turned + " degrees");
+    }
+
+    @Test
+    void zeroTurnFinishesImmediately() {
+        double seconds = m_harness.runCommand(new TurnCommand(m_drive, 0.0), kTimeoutSeconds);
+
+        assertEquals(SimHarness.kLoopSeconds, seconds, 1e-6);
+    }
+}
@@ -0,0 +1,76 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.pathplanner.lib.util.FlippingUtil;
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.util.datalog.DataLogWriter;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import frc.robot.Constants.FieldConstants;
+import frc.robot.SimHarness;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DriverStationInputsTest {
+    @TempDir
+    Path m_tempDir;
+
+    private SimHarness m_harness;
+
+    @BeforeEach
+    void setUp() {
+        m_harness = new SimHarness();
+    }
+
+    @AfterEach
+    void tearDown() {
+        m_harness.close();
+    }
+
+    private static void setAllianceStation(AllianceStationID station) {
+        DriverStationSim.setAllianceStationId(station);
+        DriverStationSim.notifyNewData();
+        DriverStation.refreshData();
+    }
+
+    @Test
+    void redMatchReplaysAsRed() throws IOException {
+        // Record one cycle of a red match
+        setAllianceStation(AllianceStationID.Red2);
+        String path = m_tempDir.resolve("red.wpilog").toString();
+        try (DataLogWriter log = new DataLogWriter(path)) {
+            InputLog live = new InputLog(log, null);
+            DriverStationInputs recorded = new DriverStationInputs();
+            live.beginCycle();
+            recorded.update();
+            live.process("DriverStation", recorded);
+        }
+
+        // Replay it on a simulator that would otherwise say blue
+        setAllianceStation(AllianceStationID.Blue1);
+        ReplaySource source = new ReplaySource(path);
+        InputLog replay = new InputLog(new DataLogWriter(new ByteArrayOutputStream()), source);
+        source.setCycle(0);
+        DriverStationInputs replayed = new DriverStationInputs();
+        replay.restore("DriverStation", replayed);
+        replayed.applyToSim();
+        DriverStation.refreshData();
+
+        assertEquals(AllianceStationID.Red2, DriverStation.getRawAllianceStation());
+        assertEquals(Alliance.Red, DriverStation.getAlliance().orElse(null));
+        // Field positions follow the recorded alliance
+        FieldGoal goal = new FieldGoal();
+        assertEquals(FlippingUtil.fieldSizeX - FieldConstants.kGoalXMeters, goal.getGoalXMeters(), 1e-9);
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.wpilibj.Timer;
+import frc.robot.SimHarness;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StopControllerTest {
+    private static final double kTolerance = 0.05;
+    private static final double kTimeoutSeconds = 0.5;
+
+    private SimHarness m_harness;
+    private StopController m_stop;
+
+    @BeforeEach
+    void setUp() {
+        // Only for the paused, stepped clock
+        m_harness = new SimHarness();
+        m_stop = new StopController(kTolerance, kTimeoutSeconds);
+    }
+
+    @AfterEach
+    void tearDown() {
+        m_harness.close();
+    }
+
+    @Test
+    void idleUntilStarted() {
+        assertFalse(m_stop.isStopping());
+        assertFalse(m_stop.isEngaged());
+        assertFalse(m_stop.update(1.0));
+    }
+
+    @Test
+    void stopsOnceWithinTolerance() {
+        m_stop.start();
+        assertTrue(m_stop.update(1.0));
+        assertTrue(m_stop.update(-kTolerance * 2));
+        assertTrue(m_stop.isStopping());
+
+        assertFalse(m_stop.update(-kTolerance));
+        assertFalse(m_stop.isStopping());
+        assertTrue(m_stop.isEngaged());
+    }
+
+    @Test
+    void goesNeutralAfterTimeoutEvenIfStillMoving() {
+        double start = Timer.getFPGATimestamp();
+        m_stop.start();
+        while (Timer.getFPGATimestamp() - start < kTimeoutSeconds - 1e-9) {
+            assertTrue(m_stop.update(1.0), "gave up early at " + (Timer.getFPGATimestamp() - start) + " s");
+            m_harness.step();
+        }
+
+        assertFalse(m_stop.update(1.0));
+        assertFalse(m_stop.isStopping());
+        assertTrue(m_stop.isEngaged());
+    }
+
+    @Test
+    void restartWhileEngagedDoesNotReopenClosedLoop() {
+        m_stop.start();
+        m_stop.update(0.0);
+
+        // A second end() in a row must not wake a motor that's already in neutral
+        m_stop.start();
+        assertFalse(m_stop.isStopping());
+        assertTrue(m_stop.isEngaged());
+    }
+
+    @Test
+    void cancelReleasesTheMotor() {
+        m_stop.start();
+        m_stop.update(0.0);
+
+        m_stop.cancel();
+        assertFalse(m_stop.isEngaged());
+        assertFalse(m_stop.isStopping());
+
+        // A later stop runs the closed-loop phase again
+        m_stop.start();
+        assertTrue(m_stop.isStopping());
+    }
+
+    @Test
+    void goNeutralSkipsClosedLoop() {
+        m_stop.goNeutral();
+        assertFalse(m_stop.isStopping());
+        assertTrue(m_stop.isEngaged());
+        assertFalse(m_stop.update(1.0));
+    }
+}